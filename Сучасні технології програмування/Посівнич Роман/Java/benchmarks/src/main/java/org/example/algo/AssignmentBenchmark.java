@@ -0,0 +1,59 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// Крок призначення Ллойда (N·K відстаней + накопичення сум) окремо від решти алгоритму.
+// Лежить у пакеті org.example.algo, щоб бачити package-private AssignmentTask.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AssignmentBenchmark {
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"5", "20"})
+    public int k;
+
+    @Param({"4", "32"})
+    public int dims;
+
+    @Param({"UNIFORM", "BLOBS"})
+    public Distribution distribution;
+
+    private Dataset dataset;
+    private double[] centroids;
+    private AssignmentTask.Partial partial;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        dataset = distribution.generate(n, dims, 42L);
+        centroids = CentroidSeeder.seed(dataset, k, SeedingStrategy.RANDOM, 7L);
+        partial = new AssignmentTask.Partial(k, dims);
+        pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double serial() {
+        partial.reset();
+        AssignmentTask.assignRange(dataset, centroids, k, 0, n, partial);
+        return partial.inertia;
+    }
+
+    @Benchmark
+    public double forkJoin() {
+        int threshold = Math.max(4096, n / (pool.getParallelism() * 8));
+        return pool.invoke(new AssignmentTask(dataset, centroids, k, 0, n, threshold)).inertia;
+    }
+}
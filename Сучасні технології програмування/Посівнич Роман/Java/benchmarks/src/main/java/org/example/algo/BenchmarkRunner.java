@@ -0,0 +1,99 @@
+package org.example.algo;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+// java -jar benchmarks.jar [фільтр-регулярка] — усі бенчмарки з GC-профайлером (норма алокацій),
+//                                             результат у results.csv
+// java -jar benchmarks.jar compare baseline.csv results.csv [поріг, %] — порівняння з базовою лінією;
+//                                             код виходу 1, якщо щось повільніше більше ніж на поріг
+//                                             або базова лінія порожня
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, IOException {
+        if (args.length >= 3 && args[0].equals("compare")) {
+            double threshold = args.length > 3 ? Double.parseDouble(args[3]) : 10.0;
+            System.exit(compare(Paths.get(args[1]), Paths.get(args[2]), threshold) ? 0 : 1);
+        }
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(args.length > 0 ? args[0] : "org\\.example\\.algo\\..*Benchmark")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.CSV)
+                .result("results.csv");
+        new Runner(options.build()).run();
+    }
+
+    // Рядки зіставляються за назвою бенчмарку та всіма Param-колонками. Порівнюються лише величини, де більше = гірше:
+    // час на операцію і gc.alloc.rate.norm (B/op); лічильники AuxCounters (точність, розмір) і gc.count — ні
+    static boolean compare(Path baseline, Path current, double thresholdPercent) throws IOException {
+        Map<String, Double> base = readScores(baseline);
+        Map<String, Double> now = readScores(current);
+        // Порожня базова лінія — помилка, інакше перевірка регресій мовчки завжди проходила б
+        if (base.isEmpty()) {
+            System.out.println("Baseline " + baseline + " has no results; record one before comparing");
+            return false;
+        }
+        boolean ok = true;
+        for (Map.Entry<String, Double> e : now.entrySet()) {
+            Double before = base.get(e.getKey());
+            if (before == null || before == 0) {
+                System.out.printf("  new   %s = %.4f%n", e.getKey(), e.getValue());
+                continue;
+            }
+            double change = (e.getValue() - before) / before * 100;
+            boolean regression = change > thresholdPercent;
+            if (regression) ok = false;
+            System.out.printf("%s %+7.1f%%  %s (%.4f -> %.4f)%n", regression ? "SLOWER" : "      ", change, e.getKey(), before, e.getValue());
+        }
+        return ok;
+    }
+
+    private static Map<String, Double> readScores(Path csv) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        if (lines.isEmpty()) return scores;
+        List<String> header = splitCsv(lines.get(0));
+        int scoreColumn = header.indexOf("Score");
+        int unitColumn = header.indexOf("Unit");
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isBlank()) continue;
+            List<String> cells = splitCsv(line);
+            if (!cells.get(unitColumn).endsWith("/op")) continue;
+            StringBuilder key = new StringBuilder(cells.get(0));
+            for (int c = 0; c < header.size() && c < cells.size(); c++) {
+                if (header.get(c).startsWith("Param: ")) key.append(' ').append(header.get(c).substring(7)).append('=').append(cells.get(c));
+            }
+            try {
+                scores.put(key.toString(), Double.parseDouble(cells.get(scoreColumn)));
+            } catch (NumberFormatException ignored) {
+                // NaN або порожнє значення — пропускаємо
+            }
+        }
+        return scores;
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (ch == '"') quoted = !quoted;
+            else if (ch == ',' && !quoted) {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else cell.append(ch);
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+}
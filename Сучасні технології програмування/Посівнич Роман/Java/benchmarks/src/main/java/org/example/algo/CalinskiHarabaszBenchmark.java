@@ -0,0 +1,57 @@
+package org.example.algo;
+
+import org.example.model.DataPoint;
+import org.example.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CalinskiHarabaszBenchmark {
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"5", "20"})
+    public int k;
+
+    @Param({"4", "32"})
+    public int dims;
+
+    @Param({"UNIFORM", "BLOBS"})
+    public Distribution distribution;
+
+    private Dataset clustered;
+    private double[] centroids;
+    private List<DataPoint> points;
+    private List<DataPoint> centroidPoints;
+
+    @Setup
+    public void setUp() {
+        KMeansClusterer kmeans = new KMeansClusterer(distribution.generate(n, dims, 42L), k, 50);
+        kmeans.setSeed(7L);
+        clustered = kmeans.fit();
+        centroids = kmeans.getCentroidMatrix();
+        points = clustered.toPoints();
+        centroidPoints = kmeans.getCentroids();
+    }
+
+    @Benchmark
+    public double flat() {
+        return new CalinskiHarabaszCalculator().calculateCH(clustered, centroids, k);
+    }
+
+    @Benchmark
+    public double points() {
+        return new CalinskiHarabaszCalculator().calculateCH(points, centroidPoints);
+    }
+
+    @Benchmark
+    public double sufficientStatistics() {
+        return ClusterStatistics.of(clustered, k).calinskiHarabasz();
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Крок оновлення центроїдів: суми й кількості за мітками, потім середні
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CentroidUpdateBenchmark {
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"5", "20"})
+    public int k;
+
+    @Param({"4", "32"})
+    public int dims;
+
+    @Param({"UNIFORM", "BLOBS"})
+    public Distribution distribution;
+
+    private Dataset labeled;
+
+    @Setup
+    public void setUp() {
+        labeled = distribution.generate(n, dims, 42L);
+        double[] centroids = CentroidSeeder.seed(labeled, k, SeedingStrategy.RANDOM, 7L);
+        AssignmentTask.assignRange(labeled, centroids, k, 0, n, new AssignmentTask.Partial(k, dims));
+    }
+
+    @Benchmark
+    public double[] fromLabels() {
+        return ClusterStatistics.of(labeled, k).centroids(null);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.algo;
+
+import org.example.model.DataPoint;
+import org.example.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Повний запуск k-means (seeding + ітерації + фінальне призначення) з фіксованим seed,
+// тож усі варіанти виконують ту саму кількість ітерацій
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ClusterBenchmark {
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"5", "20"})
+    public int k;
+
+    @Param({"4", "32"})
+    public int dims;
+
+    @Param({"UNIFORM", "BLOBS", "SKEWED"})
+    public Distribution distribution;
+
+    @Param({"LLOYD", "HAMERLY", "FILTERING"})
+    public KMeansAlgorithm algorithm;
+
+    private Dataset dataset;
+    private List<DataPoint> points;
+
+    @Setup
+    public void setUp() {
+        dataset = distribution.generate(n, dims, 42L);
+        points = dataset.toPoints();
+    }
+
+    @Benchmark
+    public double fit() {
+        KMeansClusterer kmeans = new KMeansClusterer(dataset.withFreshLabels(), k, 50);
+        kmeans.setAlgorithm(algorithm);
+        kmeans.setSeeding(SeedingStrategy.KMEANS_PLUS_PLUS);
+        kmeans.setSeed(7L);
+        kmeans.fit();
+        return kmeans.getInertia();
+    }
+
+    // Старий шлях через List<DataPoint> (копія в Dataset і назад у точки)
+    @Benchmark
+    public List<DataPoint> clusterPoints() {
+        KMeansClusterer kmeans = new KMeansClusterer(points, k, 50);
+        kmeans.setAlgorithm(algorithm);
+        kmeans.setSeed(7L);
+        return kmeans.cluster();
+    }
+}
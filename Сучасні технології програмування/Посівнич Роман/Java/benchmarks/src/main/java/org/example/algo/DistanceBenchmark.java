@@ -0,0 +1,55 @@
+package org.example.algo;
+
+import org.example.model.DataPoint;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Одна відстань між двома точками: DataPoint.distanceTo проти скалярних і векторних ядер
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class DistanceBenchmark {
+    private static final int PAIRS = 1024;
+
+    @Param({"4", "32", "256"})
+    public int dims;
+
+    private double[] data;
+    private DataPoint[] points;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        data = new double[2 * PAIRS * dims];
+        for (int i = 0; i < data.length; i++) data[i] = random.nextDouble();
+        points = new DataPoint[2 * PAIRS];
+        for (int p = 0; p < points.length; p++) {
+            double[] f = new double[dims];
+            System.arraycopy(data, p * dims, f, 0, dims);
+            points[p] = new DataPoint(f);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void dataPointDistanceTo(Blackhole bh) {
+        for (int i = 0; i < PAIRS; i++) bh.consume(points[2 * i].distanceTo(points[2 * i + 1]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void scalarKernel(Blackhole bh) {
+        for (int i = 0; i < PAIRS; i++) bh.consume(DistanceKernels.SCALAR_EUCLIDEAN.distance(data, 2 * i * dims, data, (2 * i + 1) * dims, dims));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public void activeKernel(Blackhole bh) {
+        for (int i = 0; i < PAIRS; i++) bh.consume(DistanceKernels.EUCLIDEAN.distance(data, 2 * i * dims, data, (2 * i + 1) * dims, dims));
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.Random;
+
+// Форма синтетичних даних для бенчмарків; значення в [0, 1], як після min-max нормалізації
+public enum Distribution {
+    UNIFORM,    // без структури: найгірший випадок для відсікання (Hamerly, KD-дерево)
+    BLOBS,      // 8 гаусових згустків — типовий випадок
+    SKEWED;     // один великий згусток і довгий хвіст: нерівні кластери
+
+    public Dataset generate(int n, int dims, long seed) {
+        Random random = new Random(seed);
+        Dataset dataset = new Dataset(n, dims);
+        double[] data = dataset.getData();
+        double[] centers = new double[8 * dims];
+        for (int i = 0; i < centers.length; i++) centers[i] = 0.1 + 0.8 * random.nextDouble();
+        for (int p = 0; p < n; p++) {
+            int c = random.nextInt(8);
+            for (int j = 0; j < dims; j++) {
+                double x;
+                switch (this) {
+                    case BLOBS:
+                        x = centers[c * dims + j] + 0.05 * random.nextGaussian();
+                        break;
+                    case SKEWED:
+                        x = 0.2 + 0.1 * Math.log(1 / (1 - random.nextDouble()));
+                        break;
+                    default:
+                        x = random.nextDouble();
+                }
+                data[p * dims + j] = Math.max(0, Math.min(1, x));
+            }
+        }
+        return dataset;
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Силует O(N²) для EXACT, тож N тут менші, ніж в інших бенчмарках
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SilhouetteBenchmark {
+    @Param({"2000", "10000"})
+    public int n;
+
+    @Param({"5", "20"})
+    public int k;
+
+    @Param({"4", "32"})
+    public int dims;
+
+    @Param({"UNIFORM", "BLOBS"})
+    public Distribution distribution;
+
+    @Param({"EXACT", "SIMPLIFIED", "SAMPLED"})
+    public SilhouetteMode mode;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private Dataset clustered;
+    private double[] centroids;
+    private PairwiseDistances pairwise;
+
+    @Setup
+    public void setUp() {
+        KMeansClusterer kmeans = new KMeansClusterer(distribution.generate(n, dims, 42L), k, 50);
+        kmeans.setSeed(7L);
+        clustered = kmeans.fit();
+        centroids = kmeans.getCentroidMatrix();
+        pairwise = PairwiseDistances.compute(clustered, DistanceKernels.EUCLIDEAN);
+    }
+
+    @Benchmark
+    public double calculate() {
+        SilhouetteCalculator calculator = new SilhouetteCalculator();
+        calculator.setParallelism(parallelism);
+        return calculator.calculate(clustered, centroids, k, mode).value();
+    }
+
+    // Частина перебору K: матриця вже порахована, лишаються O(N²) додавання
+    @Benchmark
+    public double fromPairwise() {
+        return new SilhouetteCalculator().calculateOverallSilhouette(clustered, pairwise);
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.algo;
+
+import org.example.model.CompactMatrix;
+import org.example.model.Dataset;
+import org.example.model.StorageMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.IterationParams;
+import java.util.concurrent.TimeUnit;
+
+// Формат зберігання ознак: один прохід призначення Ллойда по double, float і 16/8-бітних кодах.
+// Ціна точності звітується допоміжними лічильниками: повний k-means з тими самими стартовими центроїдами
+// у цьому форматі проти DOUBLE — відносна зміна інерції (перерахованої по оригінальних double)
+// і частка рядків з тією самою міткою; megabytes — розмір матриці, яку прохід читає.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules=jdk.incubator.vector", "-Xmx4g"})
+public class StorageBenchmark {
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"20"})
+    public int k;
+
+    @Param({"4", "32"})
+    public int dims;
+
+    @Param({"UNIFORM", "BLOBS"})
+    public Distribution distribution;
+
+    @Param({"DOUBLE", "FLOAT32", "QUANTIZED_16", "QUANTIZED_8"})
+    public StorageMode storage;
+
+    private Dataset dataset;
+    private CompactMatrix compact;
+    private double[] centroids;
+    private AssignmentTask.Partial partial;
+    private double inertiaError;
+    private double labelAgreement;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Accuracy {
+        public double inertiaError;
+        public double labelAgreement;
+        public double megabytes;
+
+        // JMH обнуляє лічильники після @Setup і підсумовує їх по ітераціях,
+        // тож значення пишуться в кінці ітерації, поділені на кількість ітерацій
+        @TearDown(Level.Iteration)
+        public void fill(StorageBenchmark benchmark, IterationParams iteration) {
+            double share = 1.0 / iteration.getCount();
+            inertiaError = benchmark.inertiaError * share;
+            labelAgreement = benchmark.labelAgreement * share;
+            megabytes = (benchmark.compact != null ? benchmark.compact.bytes() : 8L * benchmark.n * benchmark.dims) / (1024.0 * 1024) * share;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        dataset = distribution.generate(n, dims, 42L);
+        centroids = CentroidSeeder.seed(dataset, k, SeedingStrategy.RANDOM, 7L);
+        compact = storage == StorageMode.DOUBLE ? null : CompactMatrix.of(dataset, storage);
+        partial = new AssignmentTask.Partial(k, dims);
+
+        KMeansClusterer exact = fit(StorageMode.DOUBLE);
+        KMeansClusterer approximate = fit(storage);
+        // Інерція центроїдів, знайдених у компактному форматі, — по точних даних (0 ітерацій = лише призначення)
+        KMeansClusterer rescored = new KMeansClusterer(dataset.withFreshLabels(), k, 0);
+        rescored.setInitialCentroids(approximate.getCentroidMatrix());
+        rescored.fit();
+        inertiaError = (rescored.getInertia() - exact.getInertia()) / exact.getInertia();
+        int[] a = exact.getDataset().getLabels();
+        int[] b = approximate.getDataset().getLabels();
+        int same = 0;
+        for (int p = 0; p < n; p++) if (a[p] == b[p]) same++;
+        labelAgreement = same / (double) n;
+    }
+
+    private KMeansClusterer fit(StorageMode mode) {
+        KMeansClusterer kmeans = new KMeansClusterer(dataset.withFreshLabels(), k, 50);
+        kmeans.setInitialCentroids(centroids);
+        kmeans.setStorage(mode);
+        kmeans.fit();
+        return kmeans;
+    }
+
+    @Benchmark
+    public double assign(Accuracy accuracy) {
+        partial.reset();
+        if (compact == null) AssignmentTask.assignRange(dataset, centroids, k, 0, n, partial);
+        else AssignmentTask.assignRange(dataset, compact, centroids, k, 0, n, partial);
+        return partial.inertia;
+    }
+}
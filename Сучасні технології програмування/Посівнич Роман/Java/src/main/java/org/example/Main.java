@@ -1,29 +1,37 @@
 package org.example;
 
-import org.example.algo.CalinskiHarabaszCalculator;
-import org.example.algo.KMeansClusterer;
-import org.example.algo.SilhouetteCalculator;
+import org.example.algo.KMeansModel;
+import org.example.algo.KSweepResult;
+import org.example.algo.KSweepService;
+import org.example.data.CoresetBuilder;
+import org.example.data.DatasetLoader;
+import org.example.data.NormalizationMode;
+import org.example.data.Normalizer;
 import org.example.model.ClusterResult;
-import org.example.model.DataPoint;
+import org.example.model.Dataset;
 import org.example.ui.*;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.List;
-import java.util.stream.Collectors;
 
 public class Main extends JFrame {
 
     private static final int MAX_K = 7;
     private static final int MIN_K = 2;
+    // Понад цей розмір перебір K іде по зваженому коресету, а повні дані використовуються лише для обраного K
+    private static final int CORESET_THRESHOLD = 20_000;
+    private static final int CORESET_SIZE = 4096;
     private int currentK = 5;
 
-    private final List<DataPoint> initialData;
-    private final List<double[]> rawData;
+    private final Dataset normalizedData;
+    private final Dataset rawData;
+    private final Dataset coreset;
+    private Normalizer normalizer;
     private final List<String> ALL_FEATURE_NAMES = Arrays.asList(
             "Річний Дохід (тис. $)", "Оцінка Витрат (1-100)", "Вік (Роки)", "Кредитний Рейтинг (1-10)"
     );
@@ -31,6 +39,7 @@ public class Main extends JFrame {
     private ClusterResult currentResult;
     private final ClusteringPanel clusteringPanel;
     private final MetricsPanel metricsPanel;
+    private final ConvergencePanel convergencePanel;
     private final LegendPanel legendPanel;
     private final ResultFormPanel resultFormPanel;
     private final JComboBox<Integer> kSelector;
@@ -38,10 +47,20 @@ public class Main extends JFrame {
     private final JComboBox<String> featureYSelector;
     private final JTabbedPane tabbedPane;
     private final JScrollPane tableScrollPane;
+    private final ClusterTableModel tableModel;
+    private final JButton runBtn = new JButton("Оновити");
+    private final JButton cancelBtn = new JButton("Скасувати");
+    private final JButton saveModelBtn = new JButton("Зберегти модель");
+    // Усі K 2..7 з одного дерева поділів замість окремого k-means на кожне K
+    private final JCheckBox bisectingBox = new JCheckBox("Бісекційний");
+    private KMeansModel currentModel;
+    private final JProgressBar progressBar = new JProgressBar(0, 100);
+    private SwingWorker<Map<Integer, KSweepResult>, KSweepResult> currentWorker;
 
     public Main() {
         rawData = loadMallData();
-        initialData = normalizeData(rawData);
+        normalizedData = normalizeData(rawData);
+        coreset = normalizedData.size() > CORESET_THRESHOLD ? CoresetBuilder.of(normalizedData, CORESET_SIZE, 42L) : null;
 
         // UI Components Setup
         kSelector = new JComboBox<>(getKOptions());
@@ -52,11 +71,13 @@ public class Main extends JFrame {
 
         clusteringPanel = new ClusteringPanel(ALL_FEATURE_NAMES);
         metricsPanel = new MetricsPanel();
+        convergencePanel = new ConvergencePanel();
         legendPanel = new LegendPanel();
         resultFormPanel = new ResultFormPanel(ALL_FEATURE_NAMES);
 
         // Table setup
-        tableScrollPane = new JScrollPane(new JTable());
+        tableModel = new ClusterTableModel(ALL_FEATURE_NAMES, rawData, normalizedData);
+        tableScrollPane = new JScrollPane(new JTable(tableModel));
         UIUtils.customizeScrollPane(tableScrollPane, new Color(54, 162, 235));
 
         tabbedPane = new JTabbedPane();
@@ -90,7 +111,9 @@ public class Main extends JFrame {
         tabbedPane.addTab("2. Візуалізація", tab2);
 
         // Tab 3
-        tabbedPane.addTab("3. Метрики", metricsPanel);
+        JSplitPane tab3 = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT, metricsPanel, convergencePanel);
+        tab3.setResizeWeight(0.5);
+        tabbedPane.addTab("3. Метрики", tab3);
     }
 
     private JPanel createHeader() {
@@ -113,9 +136,23 @@ public class Main extends JFrame {
         ctrl.add(makeLabel("Y:"));
         ctrl.add(styleBox(featureYSelector));
 
-        JButton runBtn = new JButton("Оновити");
+        bisectingBox.setOpaque(false);
+        bisectingBox.setForeground(Color.WHITE);
+        // Коресет зважений, а бісекційний k-means ваг не враховує
+        bisectingBox.setEnabled(coreset == null);
+        ctrl.add(bisectingBox);
+
         runBtn.addActionListener(e -> runClustering());
         ctrl.add(runBtn);
+        cancelBtn.setEnabled(false);
+        cancelBtn.addActionListener(e -> cancelClustering());
+        ctrl.add(cancelBtn);
+        saveModelBtn.setEnabled(false);
+        saveModelBtn.addActionListener(e -> saveModel());
+        ctrl.add(saveModelBtn);
+        progressBar.setStringPainted(true);
+        progressBar.setPreferredSize(new Dimension(120, 20));
+        ctrl.add(progressBar);
 
         header.add(ctrl, BorderLayout.EAST);
         return header;
@@ -140,86 +177,144 @@ public class Main extends JFrame {
         return p;
     }
 
+    // Перебір K виконується у фоновому потоці; панелі оновлюються по мірі надходження результатів
     private void runClustering() {
+        cancelClustering();
+        // Попередній результат належить іншому K: форма оновлюється лише після showResult цього запуску
+        currentResult = null;
         currentK = (Integer) kSelector.getSelectedItem();
+        int selectedK = currentK;
         int xIdx = featureXSelector.getSelectedIndex();
         int yIdx = featureYSelector.getSelectedIndex();
 
-        // 1. Run KMeans
-        List<DataPoint> dataCopy = deepCopyData();
-        KMeansClusterer kmeans = new KMeansClusterer(dataCopy, currentK, 100);
-        List<DataPoint> clustered = kmeans.cluster();
-        currentResult = new ClusterResult(clustered, kmeans.getCentroids());
-
-        // 2. Update Table
-        updateTable(clustered);
-
-        // 3. Calc Metrics for graph
         Map<Integer, Double> sil = new HashMap<>();
         Map<Integer, Double> ch = new HashMap<>();
-        SilhouetteCalculator silCalc = new SilhouetteCalculator();
-        CalinskiHarabaszCalculator chCalc = new CalinskiHarabaszCalculator();
-
-        for(int k=MIN_K; k<=MAX_K; k++) {
-            List<DataPoint> temp = deepCopyData();
-            KMeansClusterer tempKm = new KMeansClusterer(temp, k, 100);
-            List<DataPoint> res = tempKm.cluster();
-            sil.put(k, silCalc.calculateOverallSilhouette(res));
-            ch.put(k, chCalc.calculateCH(res, tempKm.getCentroids()));
-        }
+        Map<Integer, Double> db = new HashMap<>();
+        KSweepService sweep = new KSweepService(coreset != null ? coreset : normalizedData, MIN_K, MAX_K);
+        sweep.setBisecting(coreset == null && bisectingBox.isSelected());
+
+        SwingWorker<Map<Integer, KSweepResult>, KSweepResult> worker = new SwingWorker<>() {
+            @Override
+            protected Map<Integer, KSweepResult> doInBackground() throws Exception {
+                sweep.setProgressListener(fraction -> setProgress((int) Math.round(fraction * 100)));
+                Map<Integer, KSweepResult> results = sweep.run(this::publish);
+                // Перебір ішов по коресету: обраний K доводиться на повних даних з його центроїдів
+                if (coreset != null) results.put(selectedK, sweep.refine(results.get(selectedK), normalizedData));
+                return results;
+            }
 
-        // 4. Update UI Panels
-        clusteringPanel.updateData(currentResult, currentK, xIdx, yIdx);
-        legendPanel.updateData(currentResult);
-        resultFormPanel.updateResults(currentResult, currentK, sil, ch);
-        metricsPanel.updateMetrics(sil, ch, currentK);
+            @Override
+            protected void process(List<KSweepResult> chunks) {
+                if (isCancelled()) return;
+                for (KSweepResult r : chunks) {
+                    sil.put(r.k(), r.silhouette());
+                    ch.put(r.k(), r.calinskiHarabasz());
+                    db.put(r.k(), r.daviesBouldin());
+                    // Прогін для вибраного K показується одразу, без повторної кластеризації
+                    if (r.k() == selectedK && coreset == null) showResult(r, xIdx, yIdx);
+                }
+                metricsPanel.updateMetrics(new HashMap<>(sil), new HashMap<>(ch), new HashMap<>(db), selectedK);
+                if (currentResult != null) resultFormPanel.updateResults(currentResult, selectedK, sil, ch);
+            }
+
+            @Override
+            protected void done() {
+                if (currentWorker != this) return;
+                runBtn.setEnabled(true);
+                cancelBtn.setEnabled(false);
+                if (isCancelled()) {
+                    progressBar.setValue(0);
+                    return;
+                }
+                try {
+                    Map<Integer, KSweepResult> results = get();
+                    if (coreset != null) {
+                        // Для вибраного K метрики беруться з доведеного на повних даних прогону, інші K — оцінки з коресету
+                        KSweepResult refined = results.get(selectedK);
+                        sil.put(selectedK, refined.silhouette());
+                        ch.put(selectedK, refined.calinskiHarabasz());
+                        db.put(selectedK, refined.daviesBouldin());
+                        metricsPanel.updateMetrics(new HashMap<>(sil), new HashMap<>(ch), new HashMap<>(db), selectedK);
+                        showResult(refined, xIdx, yIdx);
+                        resultFormPanel.updateResults(currentResult, selectedK, sil, ch);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    JOptionPane.showMessageDialog(Main.this, "Помилка кластеризації: " + e.getCause().getMessage(),
+                            "Помилка", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        };
+        worker.addPropertyChangeListener(e -> {
+            if ("progress".equals(e.getPropertyName()) && currentWorker == worker) progressBar.setValue((Integer) e.getNewValue());
+        });
+
+        currentWorker = worker;
+        runBtn.setEnabled(false);
+        cancelBtn.setEnabled(true);
+        progressBar.setValue(0);
+        worker.execute();
     }
 
-    private void updateTable(List<DataPoint> clustered) {
-        String[] cols = new String[ALL_FEATURE_NAMES.size()*2 + 1];
-        for(int i=0; i<ALL_FEATURE_NAMES.size(); i++) {
-            cols[i] = ALL_FEATURE_NAMES.get(i) + " (Orig)";
-            cols[i+ALL_FEATURE_NAMES.size()] = ALL_FEATURE_NAMES.get(i) + " (Norm)";
-        }
-        cols[cols.length-1] = "Cluster";
+    private void showResult(KSweepResult r, int xIdx, int yIdx) {
+        currentResult = r.toClusterResult();
+        tableModel.setLabels(r.clustered().getLabels());
+        currentModel = new KMeansModel(r.centroids(), r.centroids().length / normalizedData.getDimensions(),
+                normalizer, ALL_FEATURE_NAMES);
+        saveModelBtn.setEnabled(true);
+        clusteringPanel.updateData(currentResult, r.k(), xIdx, yIdx);
+        legendPanel.updateData(currentResult);
+        convergencePanel.updateHistory(r.history(), r.k());
+    }
 
-        String[][] data = new String[rawData.size()][cols.length];
-        for(int i=0; i<rawData.size(); i++) {
-            for(int j=0; j<ALL_FEATURE_NAMES.size(); j++) {
-                data[i][j] = String.format("%.2f", rawData.get(i)[j]);
-                data[i][j+ALL_FEATURE_NAMES.size()] = String.format("%.3f", clustered.get(i).getFeatures()[j]);
-            }
-            data[i][cols.length-1] = String.valueOf(clustered.get(i).getClusterId());
+    // Модель (центроїди + нормалізатор + назви ознак) для розмітки нових файлів без повторної кластеризації
+    private void saveModel() {
+        if (currentModel == null) return;
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new java.io.File("kmeans-k" + currentModel.getK() + ".model"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            currentModel.save(chooser.getSelectedFile().toPath());
+        } catch (java.io.IOException e) {
+            JOptionPane.showMessageDialog(this, "Не вдалося зберегти модель: " + e.getMessage(), "Помилка", JOptionPane.ERROR_MESSAGE);
         }
-        JTable t = (JTable) tableScrollPane.getViewport().getView();
-        t.setModel(new DefaultTableModel(data, cols));
     }
 
-    private List<DataPoint> deepCopyData() {
-        return initialData.stream().map(p -> new DataPoint(p.getFeatures())).collect(Collectors.toList());
+    private void cancelClustering() {
+        if (currentWorker != null && !currentWorker.isDone()) currentWorker.cancel(true);
     }
 
-    private List<double[]> loadMallData() {
-        List<double[]> data = new ArrayList<>();
+    // Шлях до CSV задається -Dmall.data=..., стовпці -Dmall.columns=3,4,2,5 (за замовчуванням перші чотири).
+    // Без файлу або при помилці — випадкові дані, як і раніше.
+    private Dataset loadMallData() {
+        String path = System.getProperty("mall.data");
+        if(path != null) {
+            try {
+                int[] columns = Arrays.stream(System.getProperty("mall.columns", "0,1,2,3").split(","))
+                        .mapToInt(c -> Integer.parseInt(c.trim())).toArray();
+                if(columns.length != ALL_FEATURE_NAMES.size())
+                    throw new IllegalArgumentException("Expected " + ALL_FEATURE_NAMES.size() + " columns, got " + columns.length);
+                Dataset loaded = new DatasetLoader(columns, true).load(Paths.get(path));
+                if(loaded.size() > 0) return loaded;
+            } catch (Exception e) {
+                System.err.println("Не вдалося завантажити " + path + ": " + e.getMessage());
+            }
+        }
+        Dataset data = new Dataset(200, ALL_FEATURE_NAMES.size());
         Random r = new Random();
-        for(int i=0;i<200;i++) data.add(new double[]{r.nextDouble()*100, r.nextDouble()*100, 18+r.nextDouble()*50, r.nextDouble()*10});
+        for(int i=0;i<200;i++) {
+            data.set(i, 0, r.nextDouble()*100); data.set(i, 1, r.nextDouble()*100);
+            data.set(i, 2, 18+r.nextDouble()*50); data.set(i, 3, r.nextDouble()*10);
+        }
         return data;
     }
 
-    private List<DataPoint> normalizeData(List<double[]> raw) {
-        if(raw.isEmpty()) return new ArrayList<>();
-        int feats = raw.get(0).length;
-        double[] min = new double[feats], max = new double[feats];
-        for(int j=0; j<feats; j++) { min[j] = raw.get(0)[j]; max[j] = raw.get(0)[j]; }
-        for(double[] row : raw) {
-            for(int j=0; j<feats; j++) { min[j] = Math.min(min[j], row[j]); max[j] = Math.max(max[j], row[j]); }
-        }
-        List<DataPoint> res = new ArrayList<>();
-        for(double[] row : raw) {
-            double[] norm = new double[feats];
-            for(int j=0; j<feats; j++) norm[j] = (row[j] - min[j]) / (max[j] - min[j]);
-            res.add(new DataPoint(norm));
-        }
+    private Dataset normalizeData(Dataset raw) {
+        if(raw.size() == 0) return new Dataset(0, 0);
+        Dataset res = new Dataset(raw.getData().clone(), raw.size(), raw.getDimensions());
+        normalizer = Normalizer.fit(NormalizationMode.MIN_MAX, res);
+        normalizer.transformInPlace(res);
         return res;
     }
 
@@ -0,0 +1,191 @@
+package org.example.algo;
+
+import org.example.model.CompactMatrix;
+import org.example.model.Dataset;
+import java.util.Arrays;
+import java.util.concurrent.RecursiveTask;
+
+// Призначення точок до найближчого центроїда + часткові суми/кількості за один прохід.
+// Разом із сумами збираються суми квадратів норм — з них ClusterStatistics дає CH та інерцію без окремого проходу.
+// Суми відстаней до центроїда (корінь на кожну точку) потрібні лише Девісу-Боулдіну, тож вони рахуються
+// не на кожній ітерації, а лише в проході, про який заздалегідь відомо, що він останній (withDistances);
+// інакше — окремим закривальним проходом distanceSums або фінальним проходом Хамерлі. Для зваженого набору кожна величина множиться на вагу рядка,
+// counts лишається кількістю рядків (для порожніх кластерів), а weights — сумою ваг (для середніх).
+// Якщо задано CompactMatrix, рядки читаються з неї: кожен декодується один раз у буфер, з якого рахуються
+// і K відстаней, і суми, тож центроїди лишаються в double.
+// Діапазон ділиться навпіл, поки не стане меншим за threshold; часткові результати зливаються.
+class AssignmentTask extends RecursiveTask<AssignmentTask.Partial> {
+    static final class Partial {
+        final double[] sums;
+        final int[] counts;
+        final double[] weights;
+        final double[] squaredNorms;
+        final double[] distanceSums;
+        double inertia;
+        long reassigned;
+        // Задається викликачем і не скидається reset()
+        boolean withDistances;
+
+        Partial(int k, int dims) {
+            this.sums = new double[k * dims];
+            this.counts = new int[k];
+            this.weights = new double[k];
+            this.squaredNorms = new double[k];
+            this.distanceSums = new double[k];
+        }
+
+        void reset() {
+            Arrays.fill(sums, 0.0);
+            Arrays.fill(counts, 0);
+            Arrays.fill(weights, 0.0);
+            Arrays.fill(squaredNorms, 0.0);
+            Arrays.fill(distanceSums, 0.0);
+            inertia = 0;
+            reassigned = 0;
+        }
+
+        Partial merge(Partial other) {
+            for (int i = 0; i < sums.length; i++) sums[i] += other.sums[i];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+                weights[i] += other.weights[i];
+                squaredNorms[i] += other.squaredNorms[i];
+                distanceSums[i] += other.distanceSums[i];
+            }
+            inertia += other.inertia;
+            reassigned += other.reassigned;
+            return this;
+        }
+    }
+
+    private final Dataset dataset;
+    private final CompactMatrix compact;
+    private final double[] centroids;
+    private final int k;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final boolean withDistances;
+
+    AssignmentTask(Dataset dataset, double[] centroids, int k, int from, int to, int threshold) {
+        this(dataset, null, centroids, k, from, to, threshold, false);
+    }
+
+    AssignmentTask(Dataset dataset, CompactMatrix compact, double[] centroids, int k, int from, int to, int threshold,
+                   boolean withDistances) {
+        this.dataset = dataset;
+        this.compact = compact;
+        this.centroids = centroids;
+        this.k = k;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.withDistances = withDistances;
+    }
+
+    @Override
+    protected Partial compute() {
+        if (to - from <= threshold) {
+            Partial partial = new Partial(k, dataset.getDimensions());
+            partial.withDistances = withDistances;
+            if (compact == null) assignRange(dataset, centroids, k, from, to, partial);
+            else assignRange(dataset, compact, centroids, k, from, to, partial);
+            return partial;
+        }
+        int mid = (from + to) >>> 1;
+        AssignmentTask left = new AssignmentTask(dataset, compact, centroids, k, from, mid, threshold, withDistances);
+        AssignmentTask right = new AssignmentTask(dataset, compact, centroids, k, mid, to, threshold, withDistances);
+        left.fork();
+        Partial rightResult = right.compute();
+        return left.join().merge(rightResult);
+    }
+
+    static void assignRange(Dataset dataset, double[] centroids, int k, int from, int to, Partial into) {
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        double[] weights = dataset.getWeights();
+        long reassigned = 0;
+        for (int p = from; p < to; p++) {
+            int src = p * dims;
+            double minDistance = Double.MAX_VALUE;
+            int closest = -1;
+            for (int c = 0; c < k; c++) {
+                double distance = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, src, centroids, c * dims, dims);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    closest = c;
+                }
+            }
+            if (labels[p] != closest) reassigned++;
+            labels[p] = closest;
+            double weight = weights == null ? 1.0 : weights[p];
+            accumulate(into, data, src, dims, closest, minDistance, weight);
+            if (into.withDistances) into.distanceSums[closest] += weight * Math.sqrt(minDistance);
+        }
+        into.reassigned += reassigned;
+    }
+
+    static void assignRange(Dataset dataset, CompactMatrix compact, double[] centroids, int k, int from, int to, Partial into) {
+        int dims = dataset.getDimensions();
+        int[] labels = dataset.getLabels();
+        double[] weights = dataset.getWeights();
+        double[] row = new double[dims];
+        long reassigned = 0;
+        for (int p = from; p < to; p++) {
+            compact.decodeRow(p, row, 0);
+            double minDistance = Double.MAX_VALUE;
+            int closest = -1;
+            for (int c = 0; c < k; c++) {
+                double distance = DistanceKernels.SQUARED_EUCLIDEAN.distance(row, 0, centroids, c * dims, dims);
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    closest = c;
+                }
+            }
+            if (labels[p] != closest) reassigned++;
+            labels[p] = closest;
+            double weight = weights == null ? 1.0 : weights[p];
+            accumulate(into, row, 0, dims, closest, minDistance, weight);
+            if (into.withDistances) into.distanceSums[closest] += weight * Math.sqrt(minDistance);
+        }
+        into.reassigned += reassigned;
+    }
+
+    // Внесок однієї точки (рядок з offset src) у суми кластера; squaredDistance — до його центроїда
+    static void accumulate(Partial into, double[] data, int src, int dims, int cluster, double squaredDistance, double weight) {
+        int dst = cluster * dims;
+        double norm = 0;
+        for (int j = 0; j < dims; j++) {
+            double x = data[src + j];
+            into.sums[dst + j] += weight * x;
+            norm += x * x;
+        }
+        into.counts[cluster]++;
+        into.weights[cluster] += weight;
+        into.squaredNorms[cluster] += weight * norm;
+        into.inertia += weight * squaredDistance;
+    }
+
+    // Σ ваг·||x - c|| точок [from, to) до центроїдів своїх кластерів за поточними мітками — закривальний прохід,
+    // коли зупинку визначила збіжність і останній прохід призначення сум відстаней не збирав
+    static double[] distanceSums(Dataset dataset, CompactMatrix compact, double[] centroids, int k, int from, int to) {
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        double[] row = compact != null ? new double[dims] : null;
+        double[] sums = new double[k];
+        for (int p = from; p < to; p++) {
+            int c = labels[p];
+            double d;
+            if (compact == null) {
+                d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, c * dims, dims);
+            } else {
+                compact.decodeRow(p, row, 0);
+                d = DistanceKernels.SQUARED_EUCLIDEAN.distance(row, 0, centroids, c * dims, dims);
+            }
+            sums[c] += dataset.getWeight(p) * Math.sqrt(d);
+        }
+        return sums;
+    }
+}
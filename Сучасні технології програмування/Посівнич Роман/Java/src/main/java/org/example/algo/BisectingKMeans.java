@@ -0,0 +1,104 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Бісекційний k-means: починаючи з одного кластера, найгірший листок (за BisectingStrategy) ділиться
+// навпіл 2-means, доки не набереться maxK кластерів. Кожен поділ — це k-means з K = 2 лише над точками листка,
+// тож ітерація коштує O(n_листка) замість O(N·K), а кожен рівень дерева разом проходить дані один раз
+// (≈ log K проходів при збалансованих поділах).
+// Усі поділи записуються в ClusterTree, з якого будь-яке K <= maxK читається без повторного запуску.
+public class BisectingKMeans {
+    private final Dataset dataset;
+    private final int maxK;
+    private final int maxIterations;
+    private int parallelism = 1;
+    private BisectingStrategy strategy = BisectingStrategy.LARGEST_INERTIA;
+    private int splitTrials = 1;
+    private Long seed;
+
+    public BisectingKMeans(Dataset dataset, int maxK, int maxIterations) {
+        if (maxK < 1) throw new IllegalArgumentException("Max K must be >= 1: " + maxK);
+        this.dataset = dataset;
+        this.maxK = maxK;
+        this.maxIterations = maxIterations;
+    }
+
+    // Передається в кожен 2-means; малі листки однаково рахуються послідовно
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be >= 1: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public void setStrategy(BisectingStrategy strategy) { this.strategy = strategy; }
+
+    // Кількість 2-means з різними seed на кожен поділ; лишається поділ з найменшою інерцією
+    public void setSplitTrials(int splitTrials) {
+        if (splitTrials < 1) throw new IllegalArgumentException("Split trials must be >= 1: " + splitTrials);
+        this.splitTrials = splitTrials;
+    }
+
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    public ClusterTree build() {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        ClusterStatistics all = new ClusterStatistics(1, dims);
+        for (int p = 0; p < n; p++) all.add(dataset.getData(), p * dims, 0);
+        ClusterTree tree = new ClusterTree(n, dims, maxK);
+        int root = tree.addRoot(n, all.withinSumOfSquares(0), all.centroids(null));
+
+        int[][] rows = new int[2 * maxK - 1][];
+        rows[root] = new int[n];
+        for (int p = 0; p < n; p++) rows[root][p] = p;
+        Comparator<Integer> worst = strategy == BisectingStrategy.LARGEST_CLUSTER
+                ? Comparator.comparingLong(tree::getSize)
+                : Comparator.comparingDouble(tree::getInertia);
+        PriorityQueue<Integer> leaves = new PriorityQueue<>(worst.reversed().thenComparing(Comparator.naturalOrder()));
+        if (splittable(tree, root)) leaves.add(root);
+
+        long baseSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        while (tree.getMaxK() < maxK && !leaves.isEmpty()) {
+            KMeansClusterer.checkCancelled();
+            int node = leaves.poll();
+            KMeansClusterer best = bisect(rows[node], baseSeed + (long) tree.getMaxK() * splitTrials);
+            ClusterStatistics stats = best.getStatistics();
+            if (stats.getCount(0) == 0 || stats.getCount(1) == 0) continue;
+            int[] children = tree.split(node, stats, stats.centroids(null));
+            int[][] parts = {new int[(int) stats.getCount(0)], new int[(int) stats.getCount(1)]};
+            int[] fill = new int[2];
+            int[] labels = best.getDataset().getLabels();
+            for (int i = 0; i < rows[node].length; i++) parts[labels[i]][fill[labels[i]]++] = rows[node][i];
+            rows[node] = null;
+            for (int c = 0; c < 2; c++) {
+                rows[children[c]] = parts[c];
+                if (splittable(tree, children[c])) leaves.add(children[c]);
+            }
+        }
+        for (int node = 0; node < tree.getNodeCount(); node++) if (rows[node] != null) tree.setLeaf(rows[node], node);
+        return tree;
+    }
+
+    private static boolean splittable(ClusterTree tree, int node) {
+        return tree.getSize(node) >= 2 && tree.getInertia(node) > 0;
+    }
+
+    // 2-means над копією рядків листка; статистики поділу беруться з фінального проходу призначення
+    private KMeansClusterer bisect(int[] rows, long trialSeed) {
+        int dims = dataset.getDimensions();
+        Dataset subset = new Dataset(rows.length, dims);
+        for (int i = 0; i < rows.length; i++) System.arraycopy(dataset.getData(), rows[i] * dims, subset.getData(), i * dims, dims);
+        KMeansClusterer best = null;
+        for (int t = 0; t < splitTrials; t++) {
+            KMeansClusterer kmeans = new KMeansClusterer(t == 0 ? subset : subset.withFreshLabels(), 2, maxIterations);
+            kmeans.setSeeding(SeedingStrategy.KMEANS_PLUS_PLUS);
+            kmeans.setSeed(trialSeed + t);
+            kmeans.setParallelism(parallelism);
+            kmeans.fit();
+            if (best == null || kmeans.getStatistics().inertia() < best.getStatistics().inertia()) best = kmeans;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,6 @@
+package org.example.algo;
+
+public enum BisectingStrategy {
+    LARGEST_INERTIA,    // ділиться листок з найбільшою сумою квадратів відстаней до центроїда
+    LARGEST_CLUSTER     // ділиться листок з найбільшою кількістю точок
+}
@@ -1,38 +1,49 @@
 package org.example.algo;
 
 import org.example.model.DataPoint;
+import org.example.model.Dataset;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+// Для зваженого набору (коресет) кожен рядок рахується з вагою, а N — сума ваг
 public class CalinskiHarabaszCalculator {
     public double calculateCH(List<DataPoint> points, List<DataPoint> centroids) {
         if (points == null || points.isEmpty()) return 0.0;
-        int N = points.size();
-        int K = centroids.size();
+        return calculateCH(Dataset.fromPoints(points), Dataset.fromPoints(centroids).getData(), centroids.size());
+    }
+
+    public double calculateCH(Dataset dataset, double[] centroids, int K) {
+        int size = dataset.size();
+        double N = dataset.totalWeight();
         if (K <= 1 || N <= K) return 0.0;
 
-        int numFeatures = points.get(0).getFeatures().length;
+        int numFeatures = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
         double[] globalMean = new double[numFeatures];
-        for (DataPoint p : points) {
-            for (int i = 0; i < numFeatures; i++) globalMean[i] += p.getFeatures()[i];
+        for (int p = 0; p < size; p++) {
+            int off = p * numFeatures;
+            double w = dataset.getWeight(p);
+            for (int i = 0; i < numFeatures; i++) globalMean[i] += w * data[off + i];
         }
         for (int i = 0; i < numFeatures; i++) globalMean[i] /= N;
-        DataPoint globalCenter = new DataPoint(globalMean);
 
-        Map<Integer, List<DataPoint>> clusters = points.stream().collect(Collectors.groupingBy(DataPoint::getClusterId));
+        double[] counts = new double[K];
         double Tr_B = 0.0, Tr_W = 0.0;
-
+        for (int p = 0; p < size; p++) {
+            int c = labels[p];
+            if (c < 0 || c >= K) continue;
+            double w = dataset.getWeight(p);
+            counts[c] += w;
+            Tr_W += w * DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * numFeatures, centroids, c * numFeatures, numFeatures);
+        }
         for (int i = 0; i < K; i++) {
-            DataPoint centroid = centroids.get(i);
-            int n_i = clusters.getOrDefault(i, List.of()).size();
-            double dist = centroid.distanceTo(globalCenter);
-            Tr_B += n_i * dist * dist;
-            for (DataPoint p : clusters.getOrDefault(i, List.of())) {
-                double d = p.distanceTo(centroid);
-                Tr_W += d * d;
+            double dist2 = 0;
+            for (int j = 0; j < numFeatures; j++) {
+                double d = centroids[i * numFeatures + j] - globalMean[j];
+                dist2 += d * d;
             }
+            Tr_B += counts[i] * dist2;
         }
         return (Tr_W == 0) ? 0.0 : (Tr_B / (K - 1)) / (Tr_W / (N - K));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,150 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.*;
+import java.util.stream.IntStream;
+
+// Вибір початкових центроїдів. Усі стратегії детерміновані для заданого seed,
+// у тому числі паралельний k-means|| (випадкове число для точки залежить лише від seed, раунду та індексу).
+// k-means++ і k-means|| враховують ваги рядків зваженого набору; RANDOM бере рядки рівноймовірно.
+class CentroidSeeder {
+    private static final int PARALLEL_ROUNDS = 5;
+    private static final int PARALLEL_MIN_SIZE = 8192;
+
+    private CentroidSeeder() {}
+
+    static double[] seed(Dataset dataset, int k, SeedingStrategy strategy, long seed) {
+        int count = Math.min(k, dataset.size());
+        if (count <= 0) return new double[0];
+        switch (strategy) {
+            case KMEANS_PLUS_PLUS: return kMeansPlusPlus(dataset, dataset.getWeights(), count, new Random(seed));
+            case KMEANS_PARALLEL: return kMeansParallel(dataset, count, seed);
+            default: return randomRows(dataset, count, new Random(seed));
+        }
+    }
+
+    static double[] randomRows(Dataset dataset, int k, Random random) {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        Set<Integer> indices = new LinkedHashSet<>();
+        while (indices.size() < k && indices.size() < n) indices.add(random.nextInt(n));
+        double[] centroids = new double[indices.size() * dims];
+        int c = 0;
+        for (int index : indices) System.arraycopy(dataset.getData(), dataset.offset(index), centroids, c++ * dims, dims);
+        return centroids;
+    }
+
+    // weights == null означає однакову вагу всіх рядків
+    static double[] kMeansPlusPlus(Dataset dataset, double[] weights, int k, Random random) {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        double[] centroids = new double[k * dims];
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+
+        int first = weights == null ? random.nextInt(n) : sample(weights, null, random);
+        System.arraycopy(dataset.getData(), dataset.offset(first), centroids, 0, dims);
+        for (int c = 1; c < k; c++) {
+            int prev = (c - 1) * dims;
+            for (int p = 0; p < n; p++) minDist[p] = Math.min(minDist[p], DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, prev, dims));
+            int next = sample(minDist, weights, random);
+            if (next < 0) next = random.nextInt(n); // усі точки збігаються з уже обраними центрами
+            System.arraycopy(dataset.getData(), dataset.offset(next), centroids, c * dims, dims);
+        }
+        return centroids;
+    }
+
+    private static int sample(double[] values, double[] weights, Random random) {
+        double total = 0;
+        for (int i = 0; i < values.length; i++) total += values[i] * (weights == null ? 1 : weights[i]);
+        if (total <= 0) return -1;
+        double target = random.nextDouble() * total;
+        for (int i = 0; i < values.length; i++) {
+            target -= values[i] * (weights == null ? 1 : weights[i]);
+            if (target < 0) return i;
+        }
+        return values.length - 1;
+    }
+
+    static double[] kMeansParallel(Dataset dataset, int k, long seed) {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double oversampling = 2.0 * k;
+        double[] data = dataset.getData();
+        double[] rowWeights = dataset.getWeights();
+
+        List<Integer> candidates = new ArrayList<>();
+        candidates.add(new Random(seed).nextInt(n));
+        double[] minDist = new double[n];
+        Arrays.fill(minDist, Double.MAX_VALUE);
+        int processed = 0;
+
+        for (int round = 0; round <= PARALLEL_ROUNDS; round++) {
+            double[] fresh = rowsOf(dataset, candidates.subList(processed, candidates.size()));
+            int freshCount = candidates.size() - processed;
+            processed = candidates.size();
+            parallelRange(n).forEach(p -> {
+                for (int c = 0; c < freshCount; c++) minDist[p] = Math.min(minDist[p], DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, fresh, c * dims, dims));
+            });
+            if (round == PARALLEL_ROUNDS) break;
+
+            double cost = parallelRange(n).mapToDouble(p -> weightOf(rowWeights, p) * minDist[p]).sum();
+            if (cost <= 0) break;
+            final int r = round;
+            parallelRange(n)
+                    .filter(p -> uniform(seed, r, p) < oversampling * weightOf(rowWeights, p) * minDist[p] / cost)
+                    .forEachOrdered(candidates::add);
+        }
+
+        // Вага кандидата = кількість точок, для яких він найближчий; далі зважений k-means++
+        double[] candidateRows = rowsOf(dataset, candidates);
+        int m = candidates.size();
+        double[] weights = new double[m];
+        int[] owner = new int[n];
+        parallelRange(n).forEach(p -> {
+            double best = Double.MAX_VALUE;
+            for (int c = 0; c < m; c++) {
+                double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, candidateRows, c * dims, dims);
+                if (d < best) {
+                    best = d;
+                    owner[p] = c;
+                }
+            }
+        });
+        for (int p = 0; p < n; p++) weights[owner[p]] += weightOf(rowWeights, p);
+
+        if (m <= k) {
+            double[] centroids = Arrays.copyOf(candidateRows, k * dims);
+            Random random = new Random(seed);
+            for (int c = m; c < k; c++) System.arraycopy(data, random.nextInt(n) * dims, centroids, c * dims, dims);
+            return centroids;
+        }
+        return kMeansPlusPlus(new Dataset(candidateRows, m, dims), weights, k, new Random(seed));
+    }
+
+    private static double weightOf(double[] weights, int row) {
+        return weights == null ? 1.0 : weights[row];
+    }
+
+    private static IntStream parallelRange(int n) {
+        IntStream range = IntStream.range(0, n);
+        return n >= PARALLEL_MIN_SIZE ? range.parallel() : range;
+    }
+
+    private static double[] rowsOf(Dataset dataset, List<Integer> indices) {
+        int dims = dataset.getDimensions();
+        double[] rows = new double[indices.size() * dims];
+        for (int i = 0; i < indices.size(); i++) System.arraycopy(dataset.getData(), dataset.offset(indices.get(i)), rows, i * dims, dims);
+        return rows;
+    }
+
+    // SplitMix64 від (seed, round, index) -> рівномірне число в [0, 1)
+    private static double uniform(long seed, int round, int index) {
+        long z = seed + 0x9E3779B97F4A7C15L * (((long) round << 32) + index + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+}
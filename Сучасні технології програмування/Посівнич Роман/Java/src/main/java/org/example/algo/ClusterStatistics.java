@@ -0,0 +1,197 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.Arrays;
+
+// Достатні статистики кластеризації: для кожного кластера кількість, сума векторів і сума квадратів норм,
+// плюс ті самі величини для всього набору. Додавання/вилучення точки — O(d),
+// центроїди, інерція та Калінскі-Харабаш з них — O(K·d) без проходу по даних.
+// Зібрані під час проходу призначення k-means (of(Partial, ...)) статистики ще містять суми відстаней
+// до центроїдів цього проходу, тож і Девіс-Боулдін рахується точно. Ці суми Ллойд збирає тим самим проходом, лише
+// коли зупинка відома наперед (ліміт ітерацій), інакше — одним закривальним проходом по точках.
+// Для зважених наборів суми й норми зважені, а всі формули використовують суму ваг замість кількості точок.
+public class ClusterStatistics {
+    private final int k;
+    private final int dims;
+    private final long[] counts;
+    private final double[] weights;
+    private final double[] sums;
+    private final double[] squaredNorms;
+    private final double[] totalSum;
+    private long totalCount;
+    private double totalWeight;
+    private double totalSquaredNorm;
+    // Суми відстаней до centers; лише для статистик з проходу призначення, після add/remove — null
+    private double[] distanceSums;
+    private double[] centers;
+
+    public ClusterStatistics(int k, int dims) {
+        this.k = k;
+        this.dims = dims;
+        this.counts = new long[k];
+        this.weights = new double[k];
+        this.sums = new double[k * dims];
+        this.squaredNorms = new double[k];
+        this.totalSum = new double[dims];
+    }
+
+    public static ClusterStatistics of(Dataset dataset, int k) {
+        ClusterStatistics stats = new ClusterStatistics(k, dataset.getDimensions());
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        for (int p = 0; p < dataset.size(); p++) {
+            if (labels[p] >= 0 && labels[p] < k) stats.update(data, p * stats.dims, labels[p], 1, dataset.getWeight(p));
+        }
+        return stats;
+    }
+
+    // Статистики з проходу призначення; centers — центроїди, до яких у ньому міряли відстані
+    static ClusterStatistics of(AssignmentTask.Partial partial, double[] centers, int dims) {
+        int k = partial.counts.length;
+        ClusterStatistics stats = new ClusterStatistics(k, dims);
+        System.arraycopy(partial.sums, 0, stats.sums, 0, k * dims);
+        for (int c = 0; c < k; c++) {
+            stats.counts[c] = partial.counts[c];
+            stats.weights[c] = partial.weights[c];
+            stats.squaredNorms[c] = partial.squaredNorms[c];
+            stats.totalCount += partial.counts[c];
+            stats.totalWeight += partial.weights[c];
+            stats.totalSquaredNorm += partial.squaredNorms[c];
+            for (int j = 0; j < dims; j++) stats.totalSum[j] += partial.sums[c * dims + j];
+        }
+        stats.distanceSums = partial.distanceSums.clone();
+        stats.centers = Arrays.copyOf(centers, k * dims);
+        return stats;
+    }
+
+    public int getK() { return k; }
+    public int getDimensions() { return dims; }
+    public long getCount(int cluster) { return counts[cluster]; }
+    public long getTotalCount() { return totalCount; }
+    // Сума ваг кластера; для незваженого набору дорівнює кількості точок
+    public double getWeight(int cluster) { return weights[cluster]; }
+    public double getTotalWeight() { return totalWeight; }
+
+    public void add(double[] row, int offset, int cluster) {
+        update(row, offset, cluster, 1, 1.0);
+    }
+
+    public void remove(double[] row, int offset, int cluster) {
+        if (counts[cluster] == 0) throw new IllegalStateException("Cluster " + cluster + " is already empty");
+        update(row, offset, cluster, -1, 1.0);
+    }
+
+    private void update(double[] row, int offset, int cluster, int sign, double weight) {
+        distanceSums = null;
+        centers = null;
+        double norm = 0;
+        double w = sign * weight;
+        int off = cluster * dims;
+        for (int j = 0; j < dims; j++) {
+            double x = row[offset + j];
+            sums[off + j] += w * x;
+            totalSum[j] += w * x;
+            norm += x * x;
+        }
+        squaredNorms[cluster] += w * norm;
+        totalSquaredNorm += w * norm;
+        counts[cluster] += sign;
+        totalCount += sign;
+        weights[cluster] += w;
+        totalWeight += w;
+    }
+
+    public void merge(ClusterStatistics other) {
+        if (other.k != k || other.dims != dims) throw new IllegalArgumentException("Statistics shapes differ");
+        for (int c = 0; c < k; c++) {
+            counts[c] += other.counts[c];
+            weights[c] += other.weights[c];
+            squaredNorms[c] += other.squaredNorms[c];
+        }
+        for (int i = 0; i < sums.length; i++) sums[i] += other.sums[i];
+        for (int j = 0; j < dims; j++) totalSum[j] += other.totalSum[j];
+        totalCount += other.totalCount;
+        totalWeight += other.totalWeight;
+        totalSquaredNorm += other.totalSquaredNorm;
+        // Суми відстаней складаються, лише якщо обидві міряли до тих самих центроїдів
+        if (distanceSums != null && other.distanceSums != null && Arrays.equals(centers, other.centers)) {
+            for (int c = 0; c < k; c++) distanceSums[c] += other.distanceSums[c];
+        } else {
+            distanceSums = null;
+            centers = null;
+        }
+    }
+
+    // Середні кластерів; порожній кластер зберігає значення з previous (якщо задано)
+    public double[] centroids(double[] previous) {
+        double[] centroids = previous != null ? previous.clone() : new double[k * dims];
+        for (int c = 0; c < k; c++) {
+            if (counts[c] == 0) continue;
+            for (int j = 0; j < dims; j++) centroids[c * dims + j] = sums[c * dims + j] / weights[c];
+        }
+        return centroids;
+    }
+
+    // Σ||x - μ_c||² для кластера c = Σ||x||² - ||S_c||² / n_c (n_c — сума ваг)
+    public double withinSumOfSquares(int cluster) {
+        if (counts[cluster] == 0) return 0.0;
+        double s2 = 0;
+        int off = cluster * dims;
+        for (int j = 0; j < dims; j++) s2 += sums[off + j] * sums[off + j];
+        return Math.max(0.0, squaredNorms[cluster] - s2 / weights[cluster]);
+    }
+
+    public double inertia() {
+        double w = 0;
+        for (int c = 0; c < k; c++) w += withinSumOfSquares(c);
+        return w;
+    }
+
+    public double totalSumOfSquares() {
+        if (totalCount == 0) return 0.0;
+        double s2 = 0;
+        for (int j = 0; j < dims; j++) s2 += totalSum[j] * totalSum[j];
+        return Math.max(0.0, totalSquaredNorm - s2 / totalWeight);
+    }
+
+    // Міжкластерна дисперсія B = Σ n_c ||μ_c - μ||² = T - W
+    public double betweenSumOfSquares() {
+        return Math.max(0.0, totalSumOfSquares() - inertia());
+    }
+
+    // Та сама формула, що й у CalinskiHarabaszCalculator
+    public double calinskiHarabasz() {
+        if (k <= 1 || totalWeight <= k) return 0.0;
+        double w = inertia();
+        if (w == 0) return 0.0;
+        return (betweenSumOfSquares() / (k - 1)) / (w / (totalWeight - k));
+    }
+
+    public boolean hasDistanceSums() { return distanceSums != null; }
+
+    // DB = (1/K) Σ_i max_j (S_i + S_j) / ||c_i - c_j||, S_i — середня відстань точок кластера до його центроїда.
+    // Порожні кластери не враховуються; пара зі збіжними центроїдами дає 0, як у sklearn
+    public double daviesBouldin() {
+        if (distanceSums == null) throw new IllegalStateException("Davies-Bouldin needs distance sums from an assignment pass");
+        double[] scatter = new double[k];
+        int nonEmpty = 0;
+        for (int c = 0; c < k; c++) {
+            if (counts[c] == 0) continue;
+            scatter[c] = distanceSums[c] / weights[c];
+            nonEmpty++;
+        }
+        if (nonEmpty < 2) return 0.0;
+        double sum = 0;
+        for (int i = 0; i < k; i++) {
+            if (counts[i] == 0) continue;
+            double worst = 0;
+            for (int j = 0; j < k; j++) {
+                if (j == i || counts[j] == 0) continue;
+                double separation = Math.sqrt(DistanceKernels.SQUARED_EUCLIDEAN.distance(centers, i * dims, centers, j * dims, dims));
+                if (separation > 0) worst = Math.max(worst, (scatter[i] + scatter[j]) / separation);
+            }
+            sum += worst;
+        }
+        return sum / nonEmpty;
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.algo;
+
+import org.example.model.ClusterResult;
+import org.example.model.Dataset;
+import java.util.Arrays;
+
+// Дерево поділів бісекційного k-means. Корінь — увесь набір, кожен поділ s (0, 1, ...) перетворює листок
+// на два вузли. Лівий нащадок зберігає номер кластера батька, правий отримує номер s + 1, тож розбиття
+// на K кластерів — це стан після перших K - 1 поділів, і номери кластерів між K не перемішуються.
+// Для кожного K заздалегідь відомо, який вузол відповідає кожному кластеру, тому центроїд, розмір,
+// інерція і CH для будь-якого K читаються за O(1) без повторної кластеризації. Кожен вузол також зберігає
+// свій номер кластера для всіх K, тож мітка точки — це O(1) читання з її листка, а всі мітки для K — O(N).
+public class ClusterTree {
+    private final int dims;
+    private final int[] leafOf;
+    private final int maxK;
+    private int nodeCount;
+    private int[] parent;
+    private int[] left;
+    private int[] right;
+    private int[] clusterId;
+    private int[] createdBy;
+    private long[] sizes;
+    private double[] inertias;
+    private double[] centroids;
+    // nodeLabels[node * (maxK + 1) + k] — номер кластера, якому належать точки вузла в розбитті на k
+    private int[] nodeLabels;
+    private int splits;
+    private int[] splitNode;
+    // activeNodes[k] — вузли кластерів 0..k-1 у розбитті на k кластерів
+    private int[][] activeNodes;
+    private double[] totalInertia;
+
+    ClusterTree(int points, int dims, int maxK) {
+        this.dims = dims;
+        this.leafOf = new int[points];
+        this.maxK = maxK;
+        int capacity = 2 * maxK - 1;
+        this.parent = new int[capacity];
+        this.left = new int[capacity];
+        this.right = new int[capacity];
+        this.clusterId = new int[capacity];
+        this.createdBy = new int[capacity];
+        this.sizes = new long[capacity];
+        this.inertias = new double[capacity];
+        this.centroids = new double[capacity * dims];
+        this.nodeLabels = new int[capacity * (maxK + 1)];
+        this.splitNode = new int[Math.max(0, maxK - 1)];
+        this.activeNodes = new int[maxK + 1][];
+        this.totalInertia = new double[maxK + 1];
+    }
+
+    int addRoot(long size, double inertia, double[] centroid) {
+        int root = addNode(-1, 0, -1, size, inertia, centroid, 0);
+        activeNodes[1] = new int[]{root};
+        totalInertia[1] = inertia;
+        return root;
+    }
+
+    // Поділ листка node; stats — статистики 2-means над його точками, без проходу по даних
+    int[] split(int node, ClusterStatistics stats, double[] centers) {
+        int s = splits;
+        int l = addNode(node, clusterId[node], s, stats.getCount(0), stats.withinSumOfSquares(0), centers, 0);
+        int r = addNode(node, s + 1, s, stats.getCount(1), stats.withinSumOfSquares(1), centers, dims);
+        left[node] = l;
+        right[node] = r;
+        splitNode[s] = node;
+        splits++;
+        int k = splits + 1;
+        int[] active = Arrays.copyOf(activeNodes[k - 1], k);
+        active[clusterId[node]] = l;
+        active[k - 1] = r;
+        activeNodes[k] = active;
+        totalInertia[k] = totalInertia[k - 1] - inertias[node] + inertias[l] + inertias[r];
+        return new int[]{l, r};
+    }
+
+    private int addNode(int parentNode, int id, int split, long size, double inertia, double[] centroid, int offset) {
+        int node = nodeCount++;
+        parent[node] = parentNode;
+        left[node] = -1;
+        right[node] = -1;
+        clusterId[node] = id;
+        createdBy[node] = split;
+        sizes[node] = size;
+        inertias[node] = inertia;
+        System.arraycopy(centroid, offset, centroids, node * dims, dims);
+        // До поділу split точки вузла мали мітки батька, після нього (K >= split + 2) — власний номер
+        int row = node * (maxK + 1);
+        if (parentNode >= 0) System.arraycopy(nodeLabels, parentNode * (maxK + 1), nodeLabels, row, split + 2);
+        Arrays.fill(nodeLabels, row + split + 2, row + maxK + 1, id);
+        return node;
+    }
+
+    void setLeaf(int[] rows, int node) {
+        for (int row : rows) leafOf[row] = node;
+    }
+
+    // Найбільше K, яке є в дереві (менше за запитане, якщо кластери скінчились раніше)
+    public int getMaxK() { return splits + 1; }
+    public int getDimensions() { return dims; }
+    public int getNodeCount() { return nodeCount; }
+    public int getParent(int node) { return parent[node]; }
+    public int getLeft(int node) { return left[node]; }
+    public int getRight(int node) { return right[node]; }
+    public boolean isLeaf(int node) { return left[node] < 0; }
+    public int getClusterId(int node) { return clusterId[node]; }
+    public long getSize(int node) { return sizes[node]; }
+    public double getInertia(int node) { return inertias[node]; }
+    // Поділ, що створив вузол (-1 для кореня)
+    public int getCreatedBy(int node) { return createdBy[node]; }
+    public int getSplitNode(int split) { return splitNode[split]; }
+
+    public double[] getCentroid(int node) {
+        return Arrays.copyOfRange(centroids, node * dims, (node + 1) * dims);
+    }
+
+    private void checkK(int k) {
+        if (k < 1 || k > getMaxK()) throw new IllegalArgumentException("K must be in 1.." + getMaxK() + ": " + k);
+    }
+
+    // Вузол дерева, що є кластером cluster у розбитті на k кластерів
+    public int nodeFor(int k, int cluster) {
+        checkK(k);
+        return activeNodes[k][cluster];
+    }
+
+    public long size(int k, int cluster) { return sizes[nodeFor(k, cluster)]; }
+
+    public double inertia(int k) {
+        checkK(k);
+        return totalInertia[k];
+    }
+
+    // Та сама формула, що й у ClusterStatistics: B = T - W, T — інерція кореня
+    public double calinskiHarabasz(int k) {
+        checkK(k);
+        long n = sizes[0];
+        double w = totalInertia[k];
+        if (k <= 1 || n <= k || w == 0) return 0.0;
+        return (Math.max(0.0, totalInertia[1] - w) / (k - 1)) / (w / (n - k));
+    }
+
+    public double[] centroids(int k) {
+        checkK(k);
+        double[] result = new double[k * dims];
+        for (int c = 0; c < k; c++) System.arraycopy(centroids, activeNodes[k][c] * dims, result, c * dims, dims);
+        return result;
+    }
+
+    public int label(int row, int k) {
+        checkK(k);
+        return nodeLabels[leafOf[row] * (maxK + 1) + k];
+    }
+
+    public int[] labels(int k) {
+        checkK(k);
+        int[] labels = new int[leafOf.length];
+        for (int p = 0; p < labels.length; p++) labels[p] = nodeLabels[leafOf[p] * (maxK + 1) + k];
+        return labels;
+    }
+
+    public ClusterResult toClusterResult(Dataset dataset, int k) {
+        return ClusterResult.of(dataset.withLabels(labels(k)), centroids(k));
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.algo;
+
+// Коли зупиняти k-means. Перевіряється після кроку призначення, до оновлення центроїдів:
+// - жодна точка не змінила кластер — завжди (мітки вже відповідають центроїдам, оновлення нічого не змінить);
+// - частка перепризначених точок <= reassignmentFraction;
+// - відносна зміна інерції між ітераціями <= inertiaTolerance (для HAMERLY не застосовується — інерції там немає).
+// Нульові значення вимикають відповідну умову.
+public record ConvergenceCriteria(double inertiaTolerance, double reassignmentFraction) {
+    public static final ConvergenceCriteria EXACT = new ConvergenceCriteria(0, 0);
+
+    public ConvergenceCriteria {
+        if (!(inertiaTolerance >= 0)) throw new IllegalArgumentException("Inertia tolerance must be >= 0: " + inertiaTolerance);
+        if (!(reassignmentFraction >= 0 && reassignmentFraction <= 1)) {
+            throw new IllegalArgumentException("Reassignment fraction must be in [0, 1]: " + reassignmentFraction);
+        }
+    }
+
+    public static ConvergenceCriteria inertia(double tolerance) {
+        return new ConvergenceCriteria(tolerance, 0);
+    }
+
+    public static ConvergenceCriteria reassignments(double fraction) {
+        return new ConvergenceCriteria(0, fraction);
+    }
+
+    public boolean isConverged(long reassigned, int points, double previousInertia, double inertia) {
+        if (reassigned == 0) return true;
+        if (reassignmentFraction > 0 && reassigned <= reassignmentFraction * points) return true;
+        if (inertiaTolerance > 0 && !Double.isNaN(previousInertia) && !Double.isNaN(inertia) && previousInertia > 0) {
+            return (previousInertia - inertia) / previousInertia <= inertiaTolerance;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,231 @@
+package org.example.algo;
+
+import org.example.index.SpatialIndex;
+import org.example.model.ClusterResult;
+import org.example.model.Dataset;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+// DBSCAN: точка є ядром, якщо в її ε-околі (разом із нею) не менше minPoints точок. Ядра на відстані <= ε
+// зливаються в один кластер, прикордонна точка йде до кластера найближчого ядра, решта — шум (NOISE).
+// До GRID_MAX_DIMS вимірів ε-окіл шукається через EpsilonGrid: щільна клітинка цілком складається з ядер
+// без жодної відстані, а злиття йде між клітинками, а не між парами точок. Вище — через SpatialIndex.
+// Пошук ядер, злиття (lock-free union-find) і прикордонні точки рахуються паралельно;
+// результат не залежить від порядку обходу.
+public class DbscanClusterer {
+    public static final int NOISE = -1;
+    // Для d = 4 сусідніх клітинок уже (2·2+1)^4 = 625, і на розріджених даних дерево швидше
+    static final int GRID_MAX_DIMS = 3;
+
+    private final Dataset dataset;
+    private final double eps;
+    private final int minPoints;
+    private int parallelism = 1;
+    private boolean[] core = new boolean[0];
+    private int clusterCount;
+    private int noiseCount;
+    private int coreCount;
+    private double[] centroids = new double[0];
+
+    public DbscanClusterer(Dataset dataset, double eps, int minPoints) {
+        if (!(eps > 0)) throw new IllegalArgumentException("Epsilon must be > 0: " + eps);
+        if (minPoints < 1) throw new IllegalArgumentException("Min points must be >= 1: " + minPoints);
+        this.dataset = dataset;
+        this.eps = eps;
+        this.minPoints = minPoints;
+    }
+
+    // 1 = послідовний режим; більше значення = кількість потоків ForkJoinPool
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be >= 1: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public int getClusterCount() { return clusterCount; }
+    public int getNoiseCount() { return noiseCount; }
+    public int getCorePointCount() { return coreCount; }
+    public boolean isCore(int row) { return core[row]; }
+    public Dataset getDataset() { return dataset; }
+
+    // Середні кластерів (clusterCount × dims); для неопуклих кластерів центр може лежати поза ними
+    public double[] getCentroidMatrix() { return centroids; }
+
+    // ε-окіл однієї точки через SpatialIndex — для розмірностей, де сітка непридатна
+    private static final class TreeNeighbourhood {
+        private final Dataset dataset;
+        private final SpatialIndex index;
+        private final double eps;
+
+        TreeNeighbourhood(Dataset dataset, double eps) {
+            this.dataset = dataset;
+            this.index = SpatialIndex.of(dataset);
+            this.eps = eps;
+        }
+
+        int count(int p, int limit) { return Math.min(limit, index.withinRadius(dataset.copyRow(p), eps).length); }
+
+        void forEachNeighbour(int p, IntConsumer action) {
+            for (int q : index.withinRadius(dataset.copyRow(p), eps)) action.accept(q);
+        }
+    }
+
+    public Dataset fit() {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            EpsilonGrid grid = dims <= GRID_MAX_DIMS ? EpsilonGrid.build(data, n, dims, eps) : null;
+            TreeNeighbourhood tree = grid == null ? new TreeNeighbourhood(dataset, eps) : null;
+            KMeansClusterer.checkCancelled();
+
+            boolean[] isCore = new boolean[n];
+            forEachIndex(pool, n, p -> isCore[p] = (grid != null ? grid.count(p, minPoints) : tree.count(p, minPoints)) >= minPoints);
+            KMeansClusterer.checkCancelled();
+
+            UnionFind sets = new UnionFind(n);
+            if (grid != null) {
+                forEachIndex(pool, grid.cellCount(), c -> mergeCell(grid, c, isCore, sets));
+            } else {
+                // Кожна пара ядер зливається один раз — з боку меншого індексу
+                forEachIndex(pool, n, p -> {
+                    if (isCore[p]) tree.forEachNeighbour(p, q -> {
+                        if (q > p && isCore[q]) sets.union(p, q);
+                    });
+                });
+            }
+            KMeansClusterer.checkCancelled();
+
+            // Прикордонна точка — до найближчого ядра (при рівності — з меншим індексом), тож мітки детерміновані
+            int[] root = new int[n];
+            forEachIndex(pool, n, p -> {
+                if (isCore[p]) {
+                    root[p] = sets.find(p);
+                    return;
+                }
+                int[] nearest = {-1};
+                double[] best = {Double.MAX_VALUE};
+                IntConsumer closest = q -> {
+                    if (!isCore[q]) return;
+                    double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, data, q * dims, dims);
+                    if (d < best[0] || (d == best[0] && q < nearest[0])) {
+                        best[0] = d;
+                        nearest[0] = q;
+                    }
+                };
+                if (grid != null) grid.forEachNeighbour(p, closest);
+                else tree.forEachNeighbour(p, closest);
+                root[p] = nearest[0] < 0 ? NOISE : sets.find(nearest[0]);
+            });
+
+            // Номери кластерів — у порядку першої появи точки кластера
+            int[] clusterOf = new int[n];
+            Arrays.fill(clusterOf, NOISE);
+            clusterCount = 0;
+            noiseCount = 0;
+            coreCount = 0;
+            for (int p = 0; p < n; p++) {
+                if (isCore[p]) coreCount++;
+                if (root[p] == NOISE) {
+                    labels[p] = NOISE;
+                    noiseCount++;
+                    continue;
+                }
+                if (clusterOf[root[p]] == NOISE) clusterOf[root[p]] = clusterCount++;
+                labels[p] = clusterOf[root[p]];
+            }
+            core = isCore;
+            centroids = ClusterStatistics.of(dataset, clusterCount).centroids(null);
+            return dataset;
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+    }
+
+    // Ядра однієї клітинки завжди зв'язані між собою. Для сусідньої клітинки досить знайти одну пару ядер
+    // на відстані <= ε; якщо клітинки вже в одній множині, пара не шукається зовсім
+    private static void mergeCell(EpsilonGrid grid, int c, boolean[] isCore, UnionFind sets) {
+        int first = firstCore(grid, c, isCore);
+        if (first < 0) return;
+        for (int i = grid.cellStart(c); i < grid.cellEnd(c); i++) {
+            int p = grid.point(i);
+            if (p != first && isCore[p]) sets.union(first, p);
+        }
+        for (int n = grid.neighbourStart(c); n < grid.neighbourEnd(c); n++) {
+            int b = grid.neighbour(n);
+            if (b <= c) continue;
+            int other = firstCore(grid, b, isCore);
+            if (other < 0 || sets.find(first) == sets.find(other)) continue;
+            if (coresTouch(grid, c, b, isCore)) sets.union(first, other);
+        }
+    }
+
+    private static int firstCore(EpsilonGrid grid, int cell, boolean[] isCore) {
+        for (int i = grid.cellStart(cell); i < grid.cellEnd(cell); i++) {
+            if (isCore[grid.point(i)]) return grid.point(i);
+        }
+        return -1;
+    }
+
+    private static boolean coresTouch(EpsilonGrid grid, int a, int b, boolean[] isCore) {
+        for (int i = grid.cellStart(a); i < grid.cellEnd(a); i++) {
+            int p = grid.point(i);
+            if (!isCore[p]) continue;
+            for (int j = grid.cellStart(b); j < grid.cellEnd(b); j++) {
+                int q = grid.point(j);
+                if (isCore[q] && grid.within(p, q)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static void forEachIndex(ForkJoinPool pool, int n, IntConsumer body) {
+        IntStream range = IntStream.range(0, n);
+        if (pool == null) range.forEach(body);
+        else pool.submit(() -> range.parallel().forEach(body)).join();
+    }
+
+    // Шумові точки (мітка -1) UI малює сірим, як і точки без кластера
+    public ClusterResult toClusterResult() {
+        return ClusterResult.of(dataset, centroids);
+    }
+
+    // Lock-free union-find: корінь з більшим індексом підвішується під менший через CAS,
+    // тож циклів не буває; find стискає шлях навпіл
+    private static final class UnionFind {
+        private final AtomicIntegerArray parent;
+
+        UnionFind(int n) {
+            parent = new AtomicIntegerArray(n);
+            for (int i = 0; i < n; i++) parent.set(i, i);
+        }
+
+        int find(int x) {
+            while (true) {
+                int p = parent.get(x);
+                if (p == x) return x;
+                int g = parent.get(p);
+                if (p != g) parent.compareAndSet(x, p, g);
+                x = g;
+            }
+        }
+
+        void union(int a, int b) {
+            while (true) {
+                a = find(a);
+                b = find(b);
+                if (a == b) return;
+                if (a < b) {
+                    int t = a;
+                    a = b;
+                    b = t;
+                }
+                if (parent.compareAndSet(a, a, b)) return;
+            }
+        }
+    }
+}
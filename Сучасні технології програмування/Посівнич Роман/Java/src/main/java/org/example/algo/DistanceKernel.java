@@ -0,0 +1,10 @@
+package org.example.algo;
+
+// Відстань між двома векторами, що лежать у плоских масивах (рядок Dataset, матриця центроїдів тощо)
+public interface DistanceKernel {
+    double distance(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+    default double distance(double[] a, double[] b) {
+        return distance(a, 0, b, 0, a.length);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.algo;
+
+// Стандартні ядра відстані. Якщо доступний jdk.incubator.vector (запуск з --add-modules jdk.incubator.vector),
+// використовується векторизована реалізація, інакше — скалярна з розгорнутим циклом.
+public final class DistanceKernels {
+    public static final DistanceKernel SCALAR_SQUARED_EUCLIDEAN = DistanceKernels::squaredEuclidean;
+    public static final DistanceKernel SCALAR_EUCLIDEAN = (a, ao, b, bo, len) -> Math.sqrt(squaredEuclidean(a, ao, b, bo, len));
+    public static final DistanceKernel SCALAR_MANHATTAN = DistanceKernels::manhattan;
+    public static final DistanceKernel SCALAR_COSINE = DistanceKernels::cosine;
+
+    public static final DistanceKernel SQUARED_EUCLIDEAN;
+    public static final DistanceKernel EUCLIDEAN;
+    public static final DistanceKernel MANHATTAN;
+    public static final DistanceKernel COSINE;
+    private static final boolean VECTORIZED;
+
+    static {
+        DistanceKernel[] vector = loadVectorKernels();
+        VECTORIZED = vector != null;
+        SQUARED_EUCLIDEAN = VECTORIZED ? vector[0] : SCALAR_SQUARED_EUCLIDEAN;
+        EUCLIDEAN = VECTORIZED ? vector[1] : SCALAR_EUCLIDEAN;
+        MANHATTAN = VECTORIZED ? vector[2] : SCALAR_MANHATTAN;
+        COSINE = VECTORIZED ? vector[3] : SCALAR_COSINE;
+    }
+
+    private DistanceKernels() {}
+
+    public static boolean isVectorized() { return VECTORIZED; }
+
+    private static DistanceKernel[] loadVectorKernels() {
+        if (!Boolean.parseBoolean(System.getProperty("kmeans.vector", "true"))) return null;
+        try {
+            Class<?> c = Class.forName("org.example.algo.VectorDistanceKernels");
+            return (DistanceKernel[]) c.getDeclaredMethod("kernels").invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null; // модуль jdk.incubator.vector не підключено
+        }
+    }
+
+    static double squaredEuclidean(double[] a, int ao, double[] b, int bo, int len) {
+        double s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (; i + 3 < len; i += 4) {
+            double d0 = a[ao + i] - b[bo + i];
+            double d1 = a[ao + i + 1] - b[bo + i + 1];
+            double d2 = a[ao + i + 2] - b[bo + i + 2];
+            double d3 = a[ao + i + 3] - b[bo + i + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; i < len; i++) {
+            double d = a[ao + i] - b[bo + i];
+            s0 += d * d;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double manhattan(double[] a, int ao, double[] b, int bo, int len) {
+        double sum = 0;
+        for (int i = 0; i < len; i++) sum += Math.abs(a[ao + i] - b[bo + i]);
+        return sum;
+    }
+
+    static double cosine(double[] a, int ao, double[] b, int bo, int len) {
+        double dot = 0, na = 0, nb = 0;
+        for (int i = 0; i < len; i++) {
+            double x = a[ao + i], y = b[bo + i];
+            dot += x * y;
+            na += x * x;
+            nb += y * y;
+        }
+        return cosineFrom(dot, na, nb);
+    }
+
+    static double cosineFrom(double dot, double na, double nb) {
+        if (na == 0 || nb == 0) return (na == nb) ? 0.0 : 1.0;
+        return 1.0 - dot / Math.sqrt(na * nb);
+    }
+}
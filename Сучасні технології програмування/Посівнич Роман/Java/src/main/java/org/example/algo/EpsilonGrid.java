@@ -0,0 +1,177 @@
+package org.example.algo;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Рівномірна сітка для запитів ε-околу з кроком ε/√d: діагональ клітинки дорівнює ε, тож будь-які дві точки
+// однієї клітинки — сусіди без обчислення відстані. Сусідніми вважаються клітинки, найближчі точки яких
+// можуть бути на відстані <= ε (до ⌈√d⌉ клітинок у кожен бік). Код клітинки — змішана основа в long;
+// точки згруповані за клітинками, для кожної зайнятої клітинки один раз заготовлено список зайнятих сусідніх.
+final class EpsilonGrid {
+    private final double[] data;
+    private final int dims;
+    private final double eps2;
+    private final int[] cellOf;
+    private final int[] cellStart;
+    private final int[] order;
+    private final int[] neighbourStart;
+    private final int[] neighbourCells;
+
+    private EpsilonGrid(double[] data, int size, int dims, double eps, double side, double[] origin, long[] extent) {
+        this.data = data;
+        this.dims = dims;
+        this.eps2 = eps * eps;
+        long[] stride = new long[dims];
+        long s = 1;
+        for (int j = dims - 1; j >= 0; j--) {
+            stride[j] = s;
+            s *= extent[j];
+        }
+
+        long[] pointKeys = new long[size];
+        for (int p = 0; p < size; p++) {
+            long key = 0;
+            for (int j = 0; j < dims; j++) key += cell(data[p * dims + j], origin[j], side, extent[j]) * stride[j];
+            pointKeys[p] = key;
+        }
+        long[] keys = pointKeys.clone();
+        Arrays.sort(keys);
+        int cells = 0;
+        for (int i = 0; i < size; i++) if (i == 0 || keys[i] != keys[i - 1]) keys[cells++] = keys[i];
+        keys = Arrays.copyOf(keys, cells);
+
+        // Сортування підрахунком: точки однієї клітинки стають поруч в order
+        cellOf = new int[size];
+        cellStart = new int[cells + 1];
+        for (int p = 0; p < size; p++) {
+            cellOf[p] = Arrays.binarySearch(keys, pointKeys[p]);
+            cellStart[cellOf[p] + 1]++;
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        order = new int[size];
+        int[] fill = Arrays.copyOf(cellStart, cells);
+        for (int p = 0; p < size; p++) order[fill[cellOf[p]]++] = p;
+
+        int[][] offsets = offsets(dims, eps, side);
+        int[] found = new int[Math.max(16, cells * 9)];
+        neighbourStart = new int[cells + 1];
+        long[] coords = new long[dims];
+        int count = 0;
+        for (int c = 0; c < cells; c++) {
+            long rest = keys[c];
+            for (int j = 0; j < dims; j++) {
+                coords[j] = rest / stride[j];
+                rest %= stride[j];
+            }
+            for (int[] offset : offsets) {
+                long key = 0;
+                boolean inside = true;
+                for (int j = 0; j < dims && inside; j++) {
+                    long v = coords[j] + offset[j];
+                    inside = v >= 0 && v < extent[j];
+                    key += v * stride[j];
+                }
+                if (!inside) continue;
+                int neighbour = Arrays.binarySearch(keys, key);
+                if (neighbour < 0) continue;
+                if (count == found.length) found = Arrays.copyOf(found, found.length * 2);
+                found[count++] = neighbour;
+            }
+            neighbourStart[c + 1] = count;
+        }
+        neighbourCells = Arrays.copyOf(found, count);
+    }
+
+    // null, якщо кількість клітинок не вміщується в long (занадто мале ε для розкиду даних)
+    static EpsilonGrid build(double[] data, int size, int dims, double eps) {
+        double side = eps / Math.sqrt(dims);
+        double[] origin = new double[dims];
+        double[] max = new double[dims];
+        Arrays.fill(origin, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int p = 0; p < size; p++) {
+            for (int j = 0; j < dims; j++) {
+                double x = data[p * dims + j];
+                origin[j] = Math.min(origin[j], x);
+                max[j] = Math.max(max[j], x);
+            }
+        }
+        long[] extent = new long[dims];
+        long total = 1;
+        for (int j = 0; j < dims; j++) {
+            double cells = size == 0 ? 1 : Math.floor((max[j] - origin[j]) / side) + 1;
+            if (!(cells < Long.MAX_VALUE) || total > Long.MAX_VALUE / (long) cells) return null;
+            extent[j] = (long) cells;
+            total *= extent[j];
+        }
+        return new EpsilonGrid(data, size, dims, eps, side, origin, extent);
+    }
+
+    private static long cell(double x, double origin, double side, long extent) {
+        return Math.min(extent - 1, (long) ((x - origin) / side));
+    }
+
+    // Зсуви клітинок у межах ±⌈√d⌉, мінімальна відстань до яких (проміжки між клітинками) не перевищує ε
+    private static int[][] offsets(int dims, double eps, double side) {
+        int reach = (int) Math.ceil(eps / side);
+        int width = 2 * reach + 1;
+        int combos = 1;
+        for (int j = 0; j < dims; j++) combos *= width;
+        int[][] result = new int[combos][];
+        int count = 0;
+        for (int combo = 0; combo < combos; combo++) {
+            int[] offset = new int[dims];
+            int code = combo;
+            double gap2 = 0;
+            for (int j = 0; j < dims; j++) {
+                offset[j] = code % width - reach;
+                code /= width;
+                double gap = Math.max(0, Math.abs(offset[j]) - 1) * side;
+                gap2 += gap * gap;
+            }
+            if (gap2 <= eps * eps) result[count++] = offset;
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    int cellCount() { return cellStart.length - 1; }
+    int cellOf(int p) { return cellOf[p]; }
+    int cellStart(int cell) { return cellStart[cell]; }
+    int cellEnd(int cell) { return cellStart[cell + 1]; }
+    int point(int position) { return order[position]; }
+    int neighbourStart(int cell) { return neighbourStart[cell]; }
+    int neighbourEnd(int cell) { return neighbourStart[cell + 1]; }
+    // Список сусідніх клітинок містить і саму клітинку
+    int neighbour(int i) { return neighbourCells[i]; }
+
+    // Кількість точок (разом із самою p) на відстані <= ε; рахунок зупиняється на limit.
+    // Уся власна клітинка зараховується без обчислення відстаней
+    int count(int p, int limit) {
+        int c = cellOf[p];
+        int found = cellEnd(c) - cellStart(c);
+        if (found >= limit) return found;
+        for (int n = neighbourStart[c]; n < neighbourStart[c + 1]; n++) {
+            int cell = neighbourCells[n];
+            if (cell == c) continue;
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                if (within(order[i], p) && ++found >= limit) return found;
+            }
+        }
+        return found;
+    }
+
+    void forEachNeighbour(int p, IntConsumer action) {
+        int c = cellOf[p];
+        for (int n = neighbourStart[c]; n < neighbourStart[c + 1]; n++) {
+            int cell = neighbourCells[n];
+            for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                int q = order[i];
+                if (cell == c || within(p, q)) action.accept(q);
+            }
+        }
+    }
+
+    boolean within(int p, int q) {
+        return DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, data, q * dims, dims) <= eps2;
+    }
+}
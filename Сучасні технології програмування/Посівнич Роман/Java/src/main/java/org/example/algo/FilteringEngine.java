@@ -0,0 +1,135 @@
+package org.example.algo;
+
+import org.example.index.KDTree;
+import org.example.model.Dataset;
+import java.util.Arrays;
+
+// Алгоритм фільтрації (Kanungo et al., 2002). Дерево обходиться з множиною кандидатів-центроїдів;
+// у кожному вузлі відкидаються кандидати, які для всього прямокутника вузла гірші за найближчий
+// до його центру. Коли лишається один кандидат, весь вузол додається до нього за готовими сумами вузла.
+// Дає ті самі мітки, що й Ллойд, але для малих розмірностей рахує набагато менше відстаней.
+// Суми вузлів дерева незважені, тож зважені набори сюди не потрапляють (див. KMeansClusterer.fit).
+final class FilteringEngine {
+    private final Dataset dataset;
+    private final KDTree tree;
+    private final int dims;
+    private final double[] mid;
+    // Буфери кандидатів по глибині дерева, щоб не виділяти масив на кожен вузол
+    private int[][] keptByDepth = new int[0][];
+    private long distanceEvaluations;
+
+    FilteringEngine(Dataset dataset) {
+        this.dataset = dataset;
+        this.dims = dataset.getDimensions();
+        this.tree = new KDTree(dataset.getData(), dataset.size(), dims);
+        this.mid = new double[dims];
+    }
+
+    long getDistanceEvaluations() { return distanceEvaluations; }
+
+    AssignmentTask.Partial assign(double[] centroids, int k, AssignmentTask.Partial out) {
+        out.reset();
+        if (dataset.size() == 0 || k == 0) return out;
+        int[] candidates = new int[k];
+        for (int c = 0; c < k; c++) candidates[c] = c;
+        filter(0, 0, candidates, k, centroids, out);
+        return out;
+    }
+
+    private void filter(int node, int depth, int[] candidates, int count, double[] centroids, AssignmentTask.Partial out) {
+        for (int j = 0; j < dims; j++) mid[j] = 0.5 * (tree.getBoxMin(node, j) + tree.getBoxMax(node, j));
+        int best = candidates[0];
+        double bestDist = Double.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(mid, 0, centroids, candidates[i] * dims, dims);
+            if (d < bestDist) {
+                bestDist = d;
+                best = candidates[i];
+            }
+        }
+        distanceEvaluations += count;
+
+        int[] kept = buffer(depth, count);
+        int keptCount = 0;
+        for (int i = 0; i < count; i++) {
+            int z = candidates[i];
+            if (z == best || !dominated(z, best, node, centroids)) kept[keptCount++] = z;
+        }
+
+        if (keptCount == 1) {
+            assignNode(node, best, centroids, out);
+        } else if (tree.isLeaf(node)) {
+            assignPoints(node, kept, keptCount, centroids, out);
+        } else {
+            filter(tree.getLeft(node), depth + 1, kept, keptCount, centroids, out);
+            filter(tree.getRight(node), depth + 1, kept, keptCount, centroids, out);
+        }
+    }
+
+    private int[] buffer(int depth, int size) {
+        if (depth >= keptByDepth.length) keptByDepth = Arrays.copyOf(keptByDepth, Math.max(32, depth * 2));
+        if (keptByDepth[depth] == null || keptByDepth[depth].length < size) keptByDepth[depth] = new int[size];
+        return keptByDepth[depth];
+    }
+
+    // z гірший за best у всьому прямокутнику, якщо гірший у вершині, найдальшій від best у напрямку z - best
+    private boolean dominated(int z, int best, int node, double[] centroids) {
+        int zo = z * dims, bo = best * dims;
+        double dz = 0, db = 0;
+        for (int j = 0; j < dims; j++) {
+            double v = centroids[zo + j] > centroids[bo + j] ? tree.getBoxMax(node, j) : tree.getBoxMin(node, j);
+            double a = centroids[zo + j] - v, b = centroids[bo + j] - v;
+            dz += a * a;
+            db += b * b;
+        }
+        distanceEvaluations += 2;
+        return dz >= db;
+    }
+
+    // Σ||x - c||² по вузлу = Σ||x||² - 2·c·S + n·||c||². Мітки однаково проставляються поточково, але без відстаней:
+    // суми відстаней для Девіса-Боулдіна рахуються один раз після зупинки (AssignmentTask.distanceSums),
+    // навіть якщо прохід був останнім за лімітом ітерацій
+    private void assignNode(int node, int cluster, double[] centroids, AssignmentTask.Partial out) {
+        int n = tree.getCount(node);
+        int off = cluster * dims;
+        double dot = 0, norm = 0;
+        for (int j = 0; j < dims; j++) {
+            double s = tree.getSum(node, j);
+            out.sums[off + j] += s;
+            dot += centroids[off + j] * s;
+            norm += centroids[off + j] * centroids[off + j];
+        }
+        out.counts[cluster] += n;
+        out.weights[cluster] += n;
+        out.squaredNorms[cluster] += tree.getSquaredNorm(node);
+        out.inertia += Math.max(0.0, tree.getSquaredNorm(node) - 2 * dot + n * norm);
+        int[] labels = dataset.getLabels();
+        for (int i = tree.getStart(node); i < tree.getEnd(node); i++) {
+            int p = tree.getPoint(i);
+            if (labels[p] != cluster) out.reassigned++;
+            labels[p] = cluster;
+        }
+    }
+
+    private void assignPoints(int node, int[] candidates, int count, double[] centroids, AssignmentTask.Partial out) {
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        for (int i = tree.getStart(node); i < tree.getEnd(node); i++) {
+            int p = tree.getPoint(i);
+            int po = p * dims;
+            int best = candidates[0];
+            double bestDist = Double.MAX_VALUE;
+            for (int c = 0; c < count; c++) {
+                double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, po, centroids, candidates[c] * dims, dims);
+                if (d < bestDist) {
+                    bestDist = d;
+                    best = candidates[c];
+                }
+            }
+            if (labels[p] != best) out.reassigned++;
+            labels[p] = best;
+            AssignmentTask.accumulate(out, data, po, dims, best, bestDist, 1.0);
+        }
+        distanceEvaluations += (long) count * tree.getCount(node);
+    }
+}
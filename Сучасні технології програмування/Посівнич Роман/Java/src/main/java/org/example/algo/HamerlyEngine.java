@@ -0,0 +1,231 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+// Алгоритм Хамерлі: для кожної точки зберігаємо верхню межу відстані до свого центроїда
+// та нижню межу до другого найближчого. Поки upper <= max(s[a], lower), точку не перераховуємо.
+// Мітки збігаються з класичним циклом Ллойда при тих самих початкових центроїдах.
+class HamerlyEngine {
+    private final Dataset dataset;
+    private final double[] data;
+    private final double[] centroids;
+    private final int k;
+    private final int dims;
+    private final double[] upper;
+    private final double[] lower;
+    private final double[] halfSeparation;
+    private final double[] shifts;
+    private final double[] sums;
+    private final int[] counts;
+    private final double[] weightSums;
+    private final double[] weights;
+    private long distanceEvaluations;
+    private int emptyClusters;
+    private int reseeded;
+    private double maxShift;
+
+    HamerlyEngine(Dataset dataset, double[] centroids, int k) {
+        this.dataset = dataset;
+        this.data = dataset.getData();
+        this.centroids = centroids;
+        this.k = k;
+        this.dims = dataset.getDimensions();
+        int n = dataset.size();
+        this.upper = new double[n];
+        this.lower = new double[n];
+        this.halfSeparation = new double[k];
+        this.shifts = new double[k];
+        this.sums = new double[k * dims];
+        this.counts = new int[k];
+        this.weightSums = new double[k];
+        this.weights = dataset.getWeights();
+    }
+
+    long getDistanceEvaluations() { return distanceEvaluations; }
+
+    // Фаза призначення ітерації i — це перерахунок меж після оновлення i-1 (для першої — початковий повний перебір)
+    int run(int maxIterations, KMeansListener listener, Consumer<IterationStats> stats,
+            ConvergenceCriteria convergence, boolean reseedEmpty) {
+        int n = dataset.size();
+        int[] labels = dataset.getLabels();
+        long start = System.nanoTime();
+        long reassigned = 0;
+        for (int p = 0; p < n; p++) {
+            int before = labels[p];
+            scan(p);
+            if (labels[p] != before) reassigned++;
+            addToCluster(labels[p], p, 1);
+        }
+        long assignNanos = System.nanoTime() - start;
+
+        int iteration = 0;
+        while (iteration < maxIterations) {
+            KMeansClusterer.checkCancelled();
+            iteration++;
+            start = System.nanoTime();
+            boolean changed = moveCentroids(reseedEmpty);
+            long updateNanos = System.nanoTime() - start;
+            if (listener != null) listener.onIteration(iteration, maxIterations, Double.NaN);
+            stats.accept(new IterationStats(iteration, assignNanos, updateNanos, Double.NaN, reassigned, emptyClusters, reseeded, maxShift));
+            if (!changed) break;
+            start = System.nanoTime();
+            reassigned = 0;
+            updateBounds();
+            computeHalfSeparation();
+            for (int p = 0; p < n; p++) {
+                int a = labels[p];
+                double bound = Math.max(halfSeparation[a], lower[p]);
+                if (upper[p] <= bound) continue;
+                upper[p] = distance(p, a);
+                if (upper[p] <= bound) continue;
+                scan(p);
+                if (labels[p] != a) {
+                    reassigned++;
+                    addToCluster(a, p, -1);
+                    addToCluster(labels[p], p, 1);
+                }
+            }
+            assignNanos = System.nanoTime() - start;
+            // Мітки вже відповідають щойно зсунутим центроїдам; без перепризначень наступне оновлення нічого б не змінило
+            if (reseeded == 0 && convergence.isConverged(reassigned, n, Double.NaN, Double.NaN)) break;
+        }
+        return iteration;
+    }
+
+    // Межі після зсувів — лише оцінки, тож точні відстані до своїх центроїдів рахуються окремим фінальним проходом;
+    // з нього ж беруться інерція і статистики для метрик
+    AssignmentTask.Partial finalPass() {
+        int[] labels = dataset.getLabels();
+        AssignmentTask.Partial out = new AssignmentTask.Partial(k, dims);
+        for (int p = 0; p < dataset.size(); p++) {
+            double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, labels[p] * dims, dims);
+            double w = weights == null ? 1.0 : weights[p];
+            AssignmentTask.accumulate(out, data, p * dims, dims, labels[p], d, w);
+            out.distanceSums[labels[p]] += w * Math.sqrt(d);
+        }
+        return out;
+    }
+
+    // Повний перебір центроїдів: найближчий -> мітка/upper, другий -> lower
+    private void scan(int p) {
+        double best = Double.MAX_VALUE, second = Double.MAX_VALUE;
+        int bestIndex = -1;
+        for (int c = 0; c < k; c++) {
+            double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, c * dims, dims);
+            if (d < best) {
+                second = best;
+                best = d;
+                bestIndex = c;
+            } else if (d < second) {
+                second = d;
+            }
+        }
+        distanceEvaluations += k;
+        dataset.setLabel(p, bestIndex);
+        upper[p] = Math.sqrt(best);
+        lower[p] = Math.sqrt(second);
+    }
+
+    private double distance(int p, int c) {
+        distanceEvaluations++;
+        return Math.sqrt(DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, c * dims, dims));
+    }
+
+    private void addToCluster(int c, int p, int sign) {
+        double w = sign * (weights == null ? 1.0 : weights[p]);
+        counts[c] += sign;
+        weightSums[c] += w;
+        int src = p * dims, dst = c * dims;
+        for (int j = 0; j < dims; j++) sums[dst + j] += w * data[src + j];
+    }
+
+    // Як у Ллойда: після переміщення центроїдів порожній кластер переноситься в точку, найдальшу (за точною відстанню)
+    // від свого вже оновленого центроїда, із кластера, де точок більше однієї. Зсув потрапляє в shifts, тож межі лишаються коректними.
+    private void reseedEmptyClusters() {
+        int[] labels = dataset.getLabels();
+        for (int c = 0; c < k; c++) {
+            if (counts[c] != 0) continue;
+            int farthest = -1;
+            double best = -1;
+            for (int p = 0; p < upper.length; p++) {
+                int own = labels[p];
+                if (counts[own] <= 1) continue;
+                double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, own * dims, dims);
+                if (d > best) {
+                    best = d;
+                    farthest = p;
+                }
+            }
+            distanceEvaluations += upper.length;
+            if (farthest < 0) return;
+            addToCluster(labels[farthest], farthest, -1);
+            addToCluster(c, farthest, 1);
+            labels[farthest] = c;
+            shifts[c] = Math.sqrt(DistanceKernels.SQUARED_EUCLIDEAN.distance(data, farthest * dims, centroids, c * dims, dims));
+            maxShift = Math.max(maxShift, shifts[c]);
+            System.arraycopy(data, farthest * dims, centroids, c * dims, dims);
+            upper[farthest] = 0;
+            lower[farthest] = 0;
+            reseeded++;
+        }
+    }
+
+    private boolean moveCentroids(boolean reseedEmpty) {
+        boolean changed = false;
+        Arrays.fill(shifts, 0.0);
+        emptyClusters = 0;
+        reseeded = 0;
+        maxShift = 0;
+        for (int c = 0; c < k; c++) {
+            if (counts[c] == 0) {
+                emptyClusters++;
+                continue;
+            }
+            int off = c * dims;
+            double shift = 0;
+            for (int j = 0; j < dims; j++) {
+                double mean = sums[off + j] / weightSums[c];
+                double d = mean - centroids[off + j];
+                shift += d * d;
+                centroids[off + j] = mean;
+            }
+            shifts[c] = Math.sqrt(shift);
+            maxShift = Math.max(maxShift, shifts[c]);
+            if (shift > 1e-12) changed = true;
+        }
+        if (reseedEmpty && emptyClusters > 0) reseedEmptyClusters();
+        return changed || reseeded > 0;
+    }
+
+    private void updateBounds() {
+        int farthest = 0;
+        for (int c = 1; c < k; c++) if (shifts[c] > shifts[farthest]) farthest = c;
+        double secondShift = 0;
+        for (int c = 0; c < k; c++) if (c != farthest) secondShift = Math.max(secondShift, shifts[c]);
+
+        int[] labels = dataset.getLabels();
+        for (int p = 0; p < upper.length; p++) {
+            int a = labels[p];
+            upper[p] += shifts[a];
+            lower[p] -= (a == farthest) ? secondShift : shifts[farthest];
+        }
+    }
+
+    private void computeHalfSeparation() {
+        Arrays.fill(halfSeparation, Double.MAX_VALUE);
+        for (int i = 0; i < k; i++) {
+            for (int j = i + 1; j < k; j++) {
+                double d2 = 0;
+                for (int t = 0; t < dims; t++) {
+                    double d = centroids[i * dims + t] - centroids[j * dims + t];
+                    d2 += d * d;
+                }
+                double half = 0.5 * Math.sqrt(d2);
+                halfSeparation[i] = Math.min(halfSeparation[i], half);
+                halfSeparation[j] = Math.min(halfSeparation[j], half);
+            }
+        }
+    }
+}
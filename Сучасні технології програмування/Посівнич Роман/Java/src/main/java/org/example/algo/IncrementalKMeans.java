@@ -0,0 +1,151 @@
+package org.example.algo;
+
+import org.example.model.ClusterResult;
+import org.example.model.Dataset;
+import java.util.Arrays;
+
+// Інкрементальне оновлення вже навченої моделі. Нова точка йде до найближчого центроїда,
+// вилучена — зникає зі статистик свого кластера; центроїди, кількості, інерція і CH оновлюються
+// через ClusterStatistics за O(K·d) на зміну. Повний Ллойд (з теплим стартом від поточних центроїдів)
+// запускається лише тоді, коли центроїди зсунулись більше ніж на driftThreshold від останнього повного прогону.
+public class IncrementalKMeans {
+    private static final int REMOVED = -2;
+
+    private final int k;
+    private final int dims;
+    private final int maxIterations;
+    private double[] data;
+    private int[] labels;
+    private int size;
+    private int removedCount;
+    private double[] centroids;
+    private double[] fittedCentroids;
+    private ClusterStatistics stats;
+    private double driftThreshold = 0.05;
+    private int refits;
+
+    public IncrementalKMeans(Dataset clustered, double[] centroids, int maxIterations) {
+        this.dims = clustered.getDimensions();
+        this.k = centroids.length / dims;
+        this.maxIterations = maxIterations;
+        this.size = clustered.size();
+        this.data = Arrays.copyOf(clustered.getData(), Math.max(16, size) * dims);
+        this.labels = Arrays.copyOf(clustered.getLabels(), Math.max(16, size));
+        this.centroids = centroids.clone();
+        this.fittedCentroids = centroids.clone();
+        this.stats = ClusterStatistics.of(new Dataset(data, size, dims, labels), k);
+    }
+
+    // Теплий старт від результату попереднього запуску (мітки беруться з точок результату)
+    public static IncrementalKMeans fromResult(ClusterResult result, int maxIterations) {
+        Dataset clustered = Dataset.fromPoints(result.getClusteredPoints());
+        double[] centroids = Dataset.fromPoints(result.getCentroids()).getData();
+        return new IncrementalKMeans(clustered, centroids, maxIterations);
+    }
+
+    // Допустимий зсув центроїда (відносно середнього радіуса кластера), після якого робиться повний перерахунок
+    public void setDriftThreshold(double driftThreshold) {
+        if (driftThreshold < 0) throw new IllegalArgumentException("Drift threshold must be >= 0: " + driftThreshold);
+        this.driftThreshold = driftThreshold;
+    }
+
+    public int size() { return size - removedCount; }
+    public int getRefitCount() { return refits; }
+    public double[] getCentroidMatrix() { return centroids; }
+    public long getClusterSize(int cluster) { return stats.getCount(cluster); }
+    public double getInertia() { return stats.inertia(); }
+    public double getCalinskiHarabasz() { return stats.calinskiHarabasz(); }
+    public ClusterStatistics getStatistics() { return stats; }
+
+    // Повертає індекс рядка, за яким точку можна потім вилучити
+    public int add(double[] row) {
+        if (row.length != dims) throw new IllegalArgumentException("Expected " + dims + " features, got " + row.length);
+        if (size == labels.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+            labels = Arrays.copyOf(labels, labels.length * 2);
+        }
+        int index = size++;
+        System.arraycopy(row, 0, data, index * dims, dims);
+        int cluster = nearest(index);
+        labels[index] = cluster;
+        stats.add(data, index * dims, cluster);
+        afterChange();
+        return index;
+    }
+
+    public void remove(int index) {
+        if (index < 0 || index >= size || labels[index] == REMOVED) throw new IllegalArgumentException("No such row: " + index);
+        stats.remove(data, index * dims, labels[index]);
+        labels[index] = REMOVED;
+        removedCount++;
+        afterChange();
+    }
+
+    public int getLabel(int index) { return labels[index]; }
+
+    private int nearest(int row) {
+        double best = Double.MAX_VALUE;
+        int bestIndex = 0;
+        for (int c = 0; c < k; c++) {
+            double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, row * dims, centroids, c * dims, dims);
+            if (d < best) {
+                best = d;
+                bestIndex = c;
+            }
+        }
+        return bestIndex;
+    }
+
+    private void afterChange() {
+        centroids = stats.centroids(centroids);
+        if (drift() > driftThreshold) refit();
+    }
+
+    // Найбільший зсув центроїда від останнього повного прогону, відносно RMS-радіуса кластерів
+    double drift() {
+        long n = stats.getTotalCount();
+        if (n == 0) return 0.0;
+        double radius = Math.sqrt(stats.inertia() / n);
+        if (radius == 0) return 0.0;
+        double maxShift = 0;
+        for (int c = 0; c < k; c++) {
+            maxShift = Math.max(maxShift, DistanceKernels.SQUARED_EUCLIDEAN.distance(centroids, c * dims, fittedCentroids, c * dims, dims));
+        }
+        return Math.sqrt(maxShift) / radius;
+    }
+
+    // Повний Ллойд з поточних центроїдів по живих рядках; індекси рядків після нього не змінюються
+    public void refit() {
+        int[] rows = liveRows();
+        Dataset live = liveDataset(rows);
+        KMeansClusterer kmeans = new KMeansClusterer(live, k, maxIterations);
+        kmeans.setInitialCentroids(centroids);
+        kmeans.fit();
+        for (int i = 0; i < rows.length; i++) labels[rows[i]] = live.getLabel(i);
+        centroids = kmeans.getCentroidMatrix().clone();
+        fittedCentroids = centroids.clone();
+        stats = ClusterStatistics.of(live, k);
+        refits++;
+    }
+
+    private int[] liveRows() {
+        int[] rows = new int[size - removedCount];
+        int w = 0;
+        for (int r = 0; r < size; r++) if (labels[r] != REMOVED) rows[w++] = r;
+        return rows;
+    }
+
+    private Dataset liveDataset(int[] rows) {
+        if (removedCount == 0) return new Dataset(data, size, dims, labels.clone());
+        Dataset live = new Dataset(rows.length, dims);
+        for (int i = 0; i < rows.length; i++) {
+            System.arraycopy(data, rows[i] * dims, live.getData(), i * dims, dims);
+            live.setLabel(i, labels[rows[i]]);
+        }
+        return live;
+    }
+
+    public ClusterResult toClusterResult() {
+        return ClusterResult.of(liveDataset(liveRows()), centroids);
+    }
+}
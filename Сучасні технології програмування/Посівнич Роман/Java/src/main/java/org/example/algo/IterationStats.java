@@ -0,0 +1,8 @@
+package org.example.algo;
+
+// Одна ітерація k-means: тривалість фаз призначення та оновлення, інерція (NaN для HAMERLY),
+// кількість точок, що змінили кластер, порожні кластери, скільки з них перезасіяно, і найбільший зсув центроїда
+public record IterationStats(int iteration, long assignNanos, long updateNanos, double inertia,
+                             long reassigned, int emptyClusters, int reseededClusters, double maxCentroidShift) {
+    public long totalNanos() { return assignNanos + updateNanos; }
+}
@@ -0,0 +1,7 @@
+package org.example.algo;
+
+public enum KMeansAlgorithm {
+    LLOYD,      // класичний цикл: N·K відстаней на ітерацію, підтримує паралельний режим
+    HAMERLY,    // межі за нерівністю трикутника, ті самі мітки з набагато меншою кількістю відстаней
+    FILTERING   // алгоритм фільтрації Канунго: KD-дерево, цілі вузли призначаються одному центроїду
+}
@@ -1,84 +1,362 @@
 package org.example.algo;
 
+import org.example.index.SpatialIndex;
+import org.example.model.CompactMatrix;
 import org.example.model.DataPoint;
+import org.example.model.Dataset;
+import org.example.model.StorageMode;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class KMeansClusterer {
+    private static final int MIN_CHUNK = 4096;
+
     private final List<DataPoint> dataPoints;
+    private final Dataset dataset;
     private final int k;
     private final int maxIterations;
-    private final List<DataPoint> centroids = new ArrayList<>();
+    private double[] centroids = new double[0];
+    private int centroidCount;
+    private int parallelism = 1;
+    private KMeansAlgorithm algorithm = KMeansAlgorithm.LLOYD;
+    private long distanceEvaluations;
+    private SeedingStrategy seeding = SeedingStrategy.RANDOM;
+    private Long seed;
+    private long lastSeed;
+    private int iterations;
+    private KMeansListener listener;
+    private double inertia = Double.NaN;
+    private double[] initialCentroids;
+    private FilteringEngine filtering;
+    private SpatialIndex centroidIndex;
+    private final List<IterationStats> history = new ArrayList<>();
+    private int emptyClusters;
+    private double maxShift;
+    private ConvergenceCriteria convergence = ConvergenceCriteria.EXACT;
+    private boolean reseedEmptyClusters = true;
+    private ClusterStatistics statistics;
+    private StorageMode storage = StorageMode.DOUBLE;
+    private CompactMatrix compact;
 
     public KMeansClusterer(List<DataPoint> dataPoints, int k, int maxIterations) {
         this.dataPoints = dataPoints;
+        this.dataset = Dataset.fromPoints(dataPoints);
+        this.k = k;
+        this.maxIterations = maxIterations;
+    }
+
+    public KMeansClusterer(Dataset dataset, int k, int maxIterations) {
+        this.dataPoints = null;
+        this.dataset = dataset;
         this.k = k;
         this.maxIterations = maxIterations;
     }
 
-    public List<DataPoint> getCentroids() { return centroids; }
+    public List<DataPoint> getCentroids() {
+        int dims = dataset.getDimensions();
+        List<DataPoint> result = new ArrayList<>(centroidCount);
+        for (int i = 0; i < centroidCount; i++) {
+            result.add(new DataPoint(Arrays.copyOfRange(centroids, i * dims, (i + 1) * dims)));
+        }
+        return result;
+    }
+
+    public double[] getCentroidMatrix() { return centroids; }
+
+    public int getCentroidCount() { return centroidCount; }
+
+    public Dataset getDataset() { return dataset; }
+
+    public int getParallelism() { return parallelism; }
+
+    // 1 = послідовний режим; більше значення = кількість потоків ForkJoinPool
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be >= 1: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public KMeansAlgorithm getAlgorithm() { return algorithm; }
+
+    public void setAlgorithm(KMeansAlgorithm algorithm) { this.algorithm = Objects.requireNonNull(algorithm); }
+
+    public long getDistanceEvaluations() { return distanceEvaluations; }
+
+    public SeedingStrategy getSeeding() { return seeding; }
+
+    public void setSeeding(SeedingStrategy seeding) { this.seeding = Objects.requireNonNull(seeding); }
+
+    // null = новий випадковий seed на кожен запуск; фактично використаний seed доступний через getLastSeed()
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    public long getLastSeed() { return lastSeed; }
+
+    public void setListener(KMeansListener listener) { this.listener = listener; }
+
+    // Переривання потоку зупиняє запуск між ітераціями з CancellationException
+    static void checkCancelled() {
+        if (Thread.currentThread().isInterrupted()) throw new CancellationException("k-means run was cancelled");
+    }
+
+    // Сума квадратів відстаней точок до своїх центроїдів після останнього запуску
+    public double getInertia() { return inertia; }
+
+    // Статистики фінального проходу призначення: CH, Девіс-Боулдін, інерція і міжкластерна дисперсія за O(K·d)
+    public ClusterStatistics getStatistics() { return statistics; }
+
+    // Кількість виконаних оновлень центроїдів в останньому запуску
+    public int getIterations() { return iterations; }
+
+    public ConvergenceCriteria getConvergence() { return convergence; }
+
+    public void setConvergence(ConvergenceCriteria convergence) { this.convergence = Objects.requireNonNull(convergence); }
+
+    // true (типово): порожній кластер переноситься в найдальшу від свого центроїда точку, і K лишається повним
+    public void setReseedEmptyClusters(boolean reseedEmptyClusters) { this.reseedEmptyClusters = reseedEmptyClusters; }
+
+    public StorageMode getStorage() { return compact != null ? compact.getMode() : storage; }
+
+    // Формат, у якому Ллойд читає рядки на кожній ітерації; компактна копія будується на початку fit()
+    public void setStorage(StorageMode storage) {
+        this.storage = Objects.requireNonNull(storage);
+        this.compact = null;
+    }
+
+    // Готова компактна копія цього набору (спільна для кількох запусків, наприклад перебору K)
+    public void setStorage(CompactMatrix compact) {
+        if (compact.size() != dataset.size() || compact.getDimensions() != dataset.getDimensions()) {
+            throw new IllegalArgumentException("Compact matrix shape does not match the dataset");
+        }
+        this.storage = compact.getMode();
+        this.compact = compact;
+    }
+
+    // Метрики кожної ітерації останнього запуску
+    public List<IterationStats> getIterationHistory() { return Collections.unmodifiableList(history); }
+
+    // Теплий старт: ці центроїди (k × dims) замінюють seeding
+    public void setInitialCentroids(double[] initialCentroids) {
+        if (initialCentroids != null && initialCentroids.length != k * dataset.getDimensions()) {
+            throw new IllegalArgumentException("Expected " + k + "x" + dataset.getDimensions() + " centroids");
+        }
+        this.initialCentroids = initialCentroids;
+    }
 
     private void initializeCentroids() {
-        Random random = new Random();
-        Set<Integer> initialIndices = new HashSet<>();
-        while (initialIndices.size() < k && initialIndices.size() < dataPoints.size()) {
-            initialIndices.add(random.nextInt(dataPoints.size()));
+        if (initialCentroids != null) {
+            centroids = initialCentroids.clone();
+            centroidCount = k;
+            return;
+        }
+        long effectiveSeed = seed != null ? seed : new Random().nextLong();
+        lastSeed = effectiveSeed;
+        centroids = CentroidSeeder.seed(dataset, k, seeding, effectiveSeed);
+        centroidCount = centroids.length / Math.max(1, dataset.getDimensions());
+    }
+
+    // Призначення + накопичення сум за один прохід; послідовно або через ForkJoinPool
+    // withDistances — прохід точно останній, тож він одразу збирає й суми відстаней для Девіса-Боулдіна
+    private AssignmentTask.Partial assignAndAccumulate(ForkJoinPool pool, CompactMatrix rows, AssignmentTask.Partial scratch,
+                                                       boolean withDistances) {
+        int n = dataset.size();
+        if (filtering != null) {
+            scratch.withDistances = false;
+            long before = filtering.getDistanceEvaluations();
+            filtering.assign(centroids, centroidCount, scratch);
+            distanceEvaluations += filtering.getDistanceEvaluations() - before;
+            return scratch;
         }
-        for (int index : initialIndices) {
-            centroids.add(new DataPoint(dataPoints.get(index).getFeatures()));
+        distanceEvaluations += (long) n * centroidCount;
+        if (pool == null) {
+            scratch.reset();
+            scratch.withDistances = withDistances;
+            if (rows == null) AssignmentTask.assignRange(dataset, centroids, centroidCount, 0, n, scratch);
+            else AssignmentTask.assignRange(dataset, rows, centroids, centroidCount, 0, n, scratch);
+            return scratch;
+        }
+        int threshold = Math.max(MIN_CHUNK, n / (parallelism * 8));
+        return pool.invoke(new AssignmentTask(dataset, rows, centroids, centroidCount, 0, n, threshold, withDistances));
+    }
+
+    private void updateCentroids(AssignmentTask.Partial partial) {
+        int dims = dataset.getDimensions();
+        double[] sums = partial.sums;
+        int[] counts = partial.counts;
+        emptyClusters = 0;
+        maxShift = 0;
+        for (int i = 0; i < centroidCount; i++) {
+            if (counts[i] == 0) {
+                emptyClusters++;
+                continue;
+            }
+            int off = i * dims;
+            double shift = 0;
+            for (int j = 0; j < dims; j++) {
+                double mean = sums[off + j] / partial.weights[i];
+                double d = mean - centroids[off + j];
+                shift += d * d;
+                centroids[off + j] = mean;
+            }
+            maxShift = Math.max(maxShift, Math.sqrt(shift));
         }
     }
 
-    private void assignPointsToClusters() {
-        for (DataPoint point : dataPoints) {
-            double minDistance = Double.MAX_VALUE;
-            int closestCluster = -1;
-            for (int i = 0; i < centroids.size(); i++) {
-                double distance = point.distanceTo(centroids.get(i));
-                if (distance < minDistance) {
-                    minDistance = distance;
-                    closestCluster = i;
+    // Кожен порожній кластер переноситься в точку, найдальшу від свого (вже оновленого) центроїда.
+    // Точка береться лише з кластера, де їх більше однієї, тож інший кластер не спорожніє.
+    // Мітка точки одразу переходить до нового кластера, тому та сама точка не буде вибрана двічі.
+    private int reseedEmptyClusters(int[] counts) {
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        int[] sizes = counts.clone();
+        int reseeded = 0;
+        for (int c = 0; c < centroidCount; c++) {
+            if (sizes[c] != 0) continue;
+            int farthest = -1;
+            double best = -1;
+            for (int p = 0; p < dataset.size(); p++) {
+                int own = labels[p];
+                if (own < 0 || sizes[own] <= 1) continue;
+                double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, own * dims, dims);
+                if (d > best) {
+                    best = d;
+                    farthest = p;
                 }
             }
-            point.setClusterId(closestCluster);
+            if (farthest < 0) break; // точок менше, ніж кластерів
+            sizes[labels[farthest]]--;
+            sizes[c] = 1;
+            labels[farthest] = c;
+            double shift = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, farthest * dims, centroids, c * dims, dims);
+            maxShift = Math.max(maxShift, Math.sqrt(shift));
+            System.arraycopy(data, farthest * dims, centroids, c * dims, dims);
+            reseeded++;
         }
+        return reseeded;
     }
 
-    private boolean updateCentroids() {
-        boolean changed = false;
-        for (int i = 0; i < k; i++) {
-            final int clusterIndex = i;
-            List<DataPoint> pointsInCluster = dataPoints.stream()
-                    .filter(p -> p.getClusterId() == clusterIndex)
-                    .collect(Collectors.toList());
+    private void record(IterationStats stats) {
+        history.add(stats);
+        KMeansEvents.commitIteration(centroidCount, stats);
+        if (listener != null) listener.onStats(stats);
+    }
 
-            if (pointsInCluster.isEmpty()) continue;
+    // Зважений набір (наприклад, коресет) дає зважений k-means: середні, інерція і k-means++ враховують ваги рядків
+    public Dataset fit() {
+        if (dataset.isWeighted() && algorithm == KMeansAlgorithm.FILTERING) {
+            throw new IllegalArgumentException("Filtering k-means does not support weighted datasets; use LLOYD or HAMERLY");
+        }
+        if (storage != StorageMode.DOUBLE && algorithm != KMeansAlgorithm.LLOYD) {
+            throw new IllegalArgumentException(storage + " storage is supported only by LLOYD, not " + algorithm);
+        }
+        KMeansEvents.Run event = new KMeansEvents.Run();
+        event.begin();
+        initializeCentroids();
+        centroidIndex = null;
+        distanceEvaluations = 0;
+        history.clear();
+        statistics = null;
+        if (algorithm == KMeansAlgorithm.HAMERLY) {
+            HamerlyEngine engine = new HamerlyEngine(dataset, centroids, centroidCount);
+            iterations = engine.run(maxIterations, listener, this::record, convergence, reseedEmptyClusters);
+            AssignmentTask.Partial last = engine.finalPass();
+            inertia = last.inertia;
+            statistics = ClusterStatistics.of(last, centroids, dataset.getDimensions());
+            distanceEvaluations = engine.getDistanceEvaluations();
+        } else {
+            fitLloyd();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm.name();
+            event.k = centroidCount;
+            event.points = dataset.size();
+            event.dimensions = dataset.getDimensions();
+            event.iterations = iterations;
+            event.inertia = inertia;
+            event.distanceEvaluations = distanceEvaluations;
+            event.commit();
+        }
+        return dataset;
+    }
 
-            double[] sumFeatures = new double[dataPoints.get(0).getFeatures().length];
-            for (DataPoint point : pointsInCluster) {
-                for (int j = 0; j < sumFeatures.length; j++) {
-                    sumFeatures[j] += point.getFeatures()[j];
+    private void fitLloyd() {
+        // Дерево будується один раз на запуск; фільтрація виконується послідовно
+        filtering = algorithm == KMeansAlgorithm.FILTERING ? new FilteringEngine(dataset) : null;
+        ForkJoinPool pool = filtering == null && parallelism > 1 && dataset.size() >= 2 * MIN_CHUNK ? new ForkJoinPool(parallelism) : null;
+        CompactMatrix rows = storage == StorageMode.DOUBLE ? null : compact != null ? compact : CompactMatrix.of(dataset, storage);
+        try {
+            AssignmentTask.Partial scratch = new AssignmentTask.Partial(centroidCount, dataset.getDimensions());
+            iterations = 0;
+            double previousInertia = Double.NaN;
+            int reseeded = 0;
+            // Кожен прохід призначення закінчується або зупинкою, або оновленням центроїдів, тож мітки
+            // і центроїди після виходу з циклу завжди узгоджені — окремий фінальний прохід не потрібен
+            while (true) {
+                checkCancelled();
+                long start = System.nanoTime();
+                AssignmentTask.Partial partial = assignAndAccumulate(pool, rows, scratch, iterations == maxIterations);
+                long assigned = System.nanoTime();
+                inertia = partial.inertia;
+                // На першому проході мітки могли прийти ззовні, тож зупинка за ними можлива лише після оновлення.
+                // Після перенесення порожнього кластера центроїд-донор ще містить віддану точку, тому потрібне ще одне оновлення
+                boolean converged = iterations > 0 && reseeded == 0 && convergence.isConverged(partial.reassigned, dataset.size(), previousInertia, partial.inertia);
+                if (converged || iterations == maxIterations) {
+                    if (!partial.withDistances) fillDistanceSums(pool, rows, partial);
+                    statistics = ClusterStatistics.of(partial, centroids, dataset.getDimensions());
+                    break;
                 }
+                iterations++;
+                updateCentroids(partial);
+                reseeded = reseedEmptyClusters && emptyClusters > 0 ? reseedEmptyClusters(partial.counts) : 0;
+                long updateNanos = System.nanoTime() - assigned;
+                if (listener != null) listener.onIteration(iterations, maxIterations, partial.inertia);
+                record(new IterationStats(iterations, assigned - start, updateNanos, partial.inertia,
+                        partial.reassigned, emptyClusters, reseeded, maxShift));
+                previousInertia = partial.inertia;
             }
-            double[] newFeatures = new double[sumFeatures.length];
-            for (int j = 0; j < sumFeatures.length; j++) {
-                newFeatures[j] = sumFeatures[j] / pointsInCluster.size();
-            }
-            DataPoint newCentroid = new DataPoint(newFeatures);
-            if (newCentroid.distanceTo(centroids.get(i)) > 1e-6) changed = true;
-            centroids.get(i).setFeatures(newFeatures);
+        } finally {
+            if (pool != null) pool.shutdown();
+            filtering = null;
         }
-        return changed;
     }
 
-    public List<DataPoint> cluster() {
-        centroids.clear();
-        initializeCentroids();
-        for (int i = 0; i < maxIterations; i++) {
-            assignPointsToClusters();
-            if (!updateCentroids()) break;
+    // Закривальний прохід, коли зупинку визначила збіжність: наперед вона невідома, а корінь на кожну точку в кожній
+    // ітерації дорожчий за один прохід. Мітки вже відповідають centroids, тож відстані — лише до свого центроїда
+    private void fillDistanceSums(ForkJoinPool pool, CompactMatrix rows, AssignmentTask.Partial partial) {
+        int n = dataset.size();
+        double[] sums;
+        if (pool == null) {
+            sums = AssignmentTask.distanceSums(dataset, rows, centroids, centroidCount, 0, n);
+        } else {
+            int chunks = parallelism * 8;
+            sums = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                    .mapToObj(i -> AssignmentTask.distanceSums(dataset, rows, centroids, centroidCount,
+                            (int) ((long) n * i / chunks), (int) ((long) n * (i + 1) / chunks)))
+                    .reduce((a, b) -> {
+                        for (int c = 0; c < a.length; c++) a[c] += b[c];
+                        return a;
+                    }).orElseThrow()).join();
+        }
+        System.arraycopy(sums, 0, partial.distanceSums, 0, centroidCount);
+    }
+
+    // Номер кластера для нової точки після fit(); індекс над центроїдами будується при першому виклику
+    public int predict(double[] features) {
+        if (centroidCount == 0) throw new IllegalStateException("Model is not fitted");
+        if (features.length != dataset.getDimensions()) {
+            throw new IllegalArgumentException("Expected " + dataset.getDimensions() + " features, got " + features.length);
         }
-        assignPointsToClusters();
+        SpatialIndex index = centroidIndex;
+        if (index == null) centroidIndex = index = SpatialIndex.of(centroids, centroidCount, dataset.getDimensions());
+        return index.nearest(features);
+    }
+
+    public List<DataPoint> cluster() {
+        fit();
+        if (dataPoints == null) return dataset.toPoints();
+        dataset.copyLabelsTo(dataPoints);
         return dataPoints;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package org.example.algo;
+
+import jdk.jfr.*;
+
+// Події JFR: запис вмикається стандартно, наприклад -XX:StartFlightRecording=filename=kmeans.jfr,
+// і переглядається в JDK Mission Control у категорії Clustering
+final class KMeansEvents {
+    private KMeansEvents() {
+    }
+
+    @Name("org.example.KMeansIteration")
+    @Label("K-Means Iteration")
+    @Category("Clustering")
+    @StackTrace(false)
+    static final class Iteration extends Event {
+        @Label("K") int k;
+        @Label("Iteration") int iteration;
+        @Label("Assign Time") @Timespan(Timespan.NANOSECONDS) long assignNanos;
+        @Label("Update Time") @Timespan(Timespan.NANOSECONDS) long updateNanos;
+        @Label("Inertia") double inertia;
+        @Label("Reassigned Points") long reassigned;
+        @Label("Empty Clusters") int emptyClusters;
+        @Label("Reseeded Clusters") int reseededClusters;
+        @Label("Max Centroid Shift") double maxCentroidShift;
+    }
+
+    @Name("org.example.KMeansRun")
+    @Label("K-Means Run")
+    @Category("Clustering")
+    @StackTrace(false)
+    static final class Run extends Event {
+        @Label("Algorithm") String algorithm;
+        @Label("K") int k;
+        @Label("Points") int points;
+        @Label("Dimensions") int dimensions;
+        @Label("Iterations") int iterations;
+        @Label("Inertia") double inertia;
+        @Label("Distance Evaluations") long distanceEvaluations;
+    }
+
+    static void commitIteration(int k, IterationStats stats) {
+        Iteration event = new Iteration();
+        if (!event.isEnabled()) return;
+        event.k = k;
+        event.iteration = stats.iteration();
+        event.assignNanos = stats.assignNanos();
+        event.updateNanos = stats.updateNanos();
+        event.inertia = stats.inertia();
+        event.reassigned = stats.reassigned();
+        event.emptyClusters = stats.emptyClusters();
+        event.reseededClusters = stats.reseededClusters();
+        event.maxCentroidShift = stats.maxCentroidShift();
+        event.commit();
+    }
+}
@@ -0,0 +1,11 @@
+package org.example.algo;
+
+// Викликається з потоку, що виконує k-means, після кожного оновлення центроїдів.
+// inertia — сума квадратів відстаней до центроїдів на цій ітерації (NaN для HAMERLY, де вона не обчислюється).
+public interface KMeansListener {
+    void onIteration(int iteration, int maxIterations, double inertia);
+
+    // Детальні метрики тієї ж ітерації (час фаз, перепризначення, порожні кластери); викликається після onIteration
+    default void onStats(IterationStats stats) {
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.algo;
+
+import org.example.data.Normalizer;
+import org.example.index.SpatialIndex;
+import org.example.model.Dataset;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Навчена модель для застосування до нових даних: центроїди (у нормалізованому просторі),
+// параметри нормалізатора і назви ознак. Незмінна, тож predict можна викликати з будь-яких потоків.
+public class KMeansModel {
+    private static final int MAGIC = 0x4B4D4D44; // "KMMD"
+    private static final int VERSION = 1;
+    private static final int CHUNK = 4096;
+    // Межі формату: пошкоджений заголовок замовляє щонайбільше 128 МБ центроїдів
+    static final int MAX_K = 1 << 16;
+    static final int MAX_VALUES = 1 << 24;
+
+    private final List<String> featureNames;
+    private final Normalizer normalizer;
+    private final double[] centroids;
+    private final int k;
+    private final int dims;
+    private final SpatialIndex index;
+
+    // normalizer == null — ознаки вже нормалізовані
+    public KMeansModel(double[] centroids, int k, Normalizer normalizer, List<String> featureNames) {
+        if (k < 1 || centroids.length % k != 0) throw new IllegalArgumentException("Centroid matrix does not match k=" + k);
+        this.k = k;
+        this.dims = centroids.length / k;
+        if (normalizer != null && normalizer.getDimensions() != dims) {
+            throw new IllegalArgumentException("Normalizer has " + normalizer.getDimensions() + " features, centroids have " + dims);
+        }
+        if (featureNames != null && featureNames.size() != dims) {
+            throw new IllegalArgumentException("Expected " + dims + " feature names, got " + featureNames.size());
+        }
+        this.centroids = centroids.clone();
+        this.normalizer = normalizer;
+        this.featureNames = featureNames == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(featureNames));
+        this.index = k > SpatialIndex.BRUTE_FORCE_LIMIT ? SpatialIndex.of(this.centroids, k, dims) : null;
+    }
+
+    public static KMeansModel from(KMeansClusterer fitted, Normalizer normalizer, List<String> featureNames) {
+        if (fitted.getCentroidCount() == 0) throw new IllegalStateException("Clusterer is not fitted");
+        double[] matrix = fitted.getCentroidMatrix();
+        int count = fitted.getCentroidCount();
+        return new KMeansModel(Arrays.copyOf(matrix, count * (matrix.length / count)), count, normalizer, featureNames);
+    }
+
+    public int getK() { return k; }
+    public int getDimensions() { return dims; }
+    public List<String> getFeatureNames() { return featureNames; }
+    public Normalizer getNormalizer() { return normalizer; }
+    public double[] getCentroidMatrix() { return centroids.clone(); }
+
+    // Центроїди в одиницях вихідних даних (для звітів)
+    public double[] getRawCentroidMatrix() {
+        double[] raw = centroids.clone();
+        if (normalizer != null) for (int c = 0; c < k; c++) normalizer.inverseTransform(raw, c * dims);
+        return raw;
+    }
+
+    // Один сирий (ненормалізований) рядок
+    public int predict(double[] row) {
+        if (row.length != dims) throw new IllegalArgumentException("Expected " + dims + " features, got " + row.length);
+        double[] scratch = row.clone();
+        return nearest(scratch, 0, scratch);
+    }
+
+    // Пакетне призначення сирих рядків: шматки по CHUNK рядків паралельно, вхідні дані не змінюються
+    public int[] predict(Dataset raw) {
+        int[] labels = new int[raw.size()];
+        predict(raw.getData(), raw.size(), labels);
+        return labels;
+    }
+
+    public void predict(double[] rows, int count, int[] labels) {
+        if (count < 0 || rows.length < (long) count * dims) throw new IllegalArgumentException("Row array is too short for " + count + "x" + dims);
+        int chunks = (count + CHUNK - 1) / CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            double[] scratch = new double[dims];
+            for (int p = c * CHUNK, to = Math.min(count, p + CHUNK); p < to; p++) labels[p] = nearest(rows, p * dims, scratch);
+        });
+    }
+
+    private int nearest(double[] rows, int offset, double[] scratch) {
+        if (scratch != rows) System.arraycopy(rows, offset, scratch, 0, dims);
+        if (normalizer != null) normalizer.transform(scratch, 0);
+        if (index != null) return index.nearest(scratch);
+        int best = 0;
+        double bestDist = Double.MAX_VALUE;
+        for (int c = 0; c < k; c++) {
+            double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(scratch, 0, centroids, c * dims, dims);
+            if (d < bestDist) {
+                bestDist = d;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // Формат: magic, версія, k, dims, назви ознак (UTF), прапорець + нормалізатор, k·dims double
+    public void save(DataOutputStream out) throws IOException {
+        if (!validShape(k, dims)) throw new IOException("Model " + k + "x" + dims + " exceeds the file format limits");
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(k);
+        out.writeInt(dims);
+        out.writeInt(featureNames.size());
+        for (String name : featureNames) out.writeUTF(name);
+        out.writeBoolean(normalizer != null);
+        if (normalizer != null) normalizer.save(out);
+        for (double v : centroids) out.writeDouble(v);
+    }
+
+    public static KMeansModel load(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a k-means model stream");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unsupported model version " + version);
+        int k = in.readInt(), dims = in.readInt();
+        // Пошкоджений файл має давати IOException, а не NegativeArraySizeException чи OOM
+        if (!validShape(k, dims)) throw new IOException("Invalid model shape " + k + "x" + dims);
+        int names = in.readInt();
+        if (names != 0 && names != dims) throw new IOException("Model has " + names + " feature names for " + dims + " features");
+        List<String> featureNames = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) featureNames.add(in.readUTF());
+        Normalizer normalizer = in.readBoolean() ? Normalizer.load(in) : null;
+        if (normalizer != null && normalizer.getDimensions() != dims) {
+            throw new IOException("Normalizer has " + normalizer.getDimensions() + " features, model has " + dims);
+        }
+        double[] centroids = new double[k * dims];
+        for (int i = 0; i < centroids.length; i++) centroids[i] = in.readDouble();
+        return new KMeansModel(centroids, k, normalizer, names == 0 ? null : featureNames);
+    }
+
+    private static boolean validShape(int k, int dims) {
+        return k >= 1 && k <= MAX_K && dims >= 1 && dims <= Normalizer.MAX_DIMENSIONS && (long) k * dims <= MAX_VALUES;
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            save(out);
+        }
+    }
+
+    public static KMeansModel load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return load(in);
+        }
+    }
+}
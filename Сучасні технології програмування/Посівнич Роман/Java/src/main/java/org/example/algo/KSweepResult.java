@@ -0,0 +1,14 @@
+package org.example.algo;
+
+import org.example.model.ClusterResult;
+import org.example.model.Dataset;
+import java.util.List;
+
+// Результат одного K у переборі: сам прогін (мітки + центроїди) і його метрики
+public record KSweepResult(int k, Dataset clustered, double[] centroids, double silhouette,
+                           double calinskiHarabasz, double daviesBouldin, double inertia,
+                           int iterations, List<IterationStats> history) {
+    public ClusterResult toClusterResult() {
+        return ClusterResult.of(clustered, centroids);
+    }
+}
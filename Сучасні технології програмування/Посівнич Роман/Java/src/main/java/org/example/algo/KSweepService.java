@@ -0,0 +1,184 @@
+package org.example.algo;
+
+import org.example.model.CompactMatrix;
+import org.example.model.Dataset;
+import org.example.model.StorageMode;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+
+// Перебір K: усі значення K рахуються одночасно над спільною нормалізованою матрицею.
+// Матриця попарних відстаней (якщо вміщується в ліміт) рахується один раз і йде в силует для всіх K.
+// Результати віддаються в onResult у порядку завершення, тож UI може оновлюватись поступово.
+// У бісекційному режимі всі K читаються з одного дерева поділів (ClusterTree) замість окремого k-means на кожне K.
+public class KSweepService {
+    private final Dataset dataset;
+    private final int minK;
+    private final int maxK;
+    private int maxIterations = 100;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long pairwiseMemoryLimit = 256L * 1024 * 1024;
+    private SeedingStrategy seeding = SeedingStrategy.KMEANS_PLUS_PLUS;
+    private Long seed;
+    private StorageMode storage = StorageMode.DOUBLE;
+    private boolean bisecting;
+    private DoubleConsumer progressListener;
+    private AtomicIntegerArray progress;
+
+    public KSweepService(Dataset dataset, int minK, int maxK) {
+        if (minK < 1 || maxK < minK) throw new IllegalArgumentException("Invalid K range: " + minK + ".." + maxK);
+        this.dataset = dataset;
+        this.minK = minK;
+        this.maxK = maxK;
+    }
+
+    public void setMaxIterations(int maxIterations) { this.maxIterations = maxIterations; }
+
+    public void setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be >= 1: " + threads);
+        this.threads = threads;
+    }
+
+    // Понад цей розмір матриця відстаней не будується, силует рахується вибірково
+    public void setPairwiseMemoryLimit(long bytes) { this.pairwiseMemoryLimit = bytes; }
+
+    public void setSeeding(SeedingStrategy seeding) { this.seeding = seeding; }
+
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    // Компактна копія будується один раз і спільна для всіх K; силует і далі рахується по double
+    public void setStorage(StorageMode storage) { this.storage = Objects.requireNonNull(storage); }
+
+    // Лише для незважених наборів: 2-means у BisectingKMeans ваги рядків не враховує
+    public void setBisecting(boolean bisecting) { this.bisecting = bisecting; }
+
+    // Частка виконаної роботи [0, 1]; викликається з робочих потоків
+    public void setProgressListener(DoubleConsumer progressListener) { this.progressListener = progressListener; }
+
+    public Map<Integer, KSweepResult> run(Consumer<KSweepResult> onResult) throws InterruptedException {
+        if (bisecting) return runBisecting(onResult);
+        int candidates = maxK - minK + 1;
+        progress = new AtomicIntegerArray(candidates);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, candidates + 1));
+        try {
+            // Задача з матрицею ставиться в чергу першою, тож жоден потік не чекає на незапущену задачу
+            boolean sharePairwise = PairwiseDistances.bytesFor(dataset.size()) <= pairwiseMemoryLimit;
+            Future<PairwiseDistances> pairwise = sharePairwise
+                    ? executor.submit(() -> PairwiseDistances.compute(dataset, DistanceKernels.EUCLIDEAN))
+                    : null;
+
+            CompactMatrix compact = storage == StorageMode.DOUBLE ? null : CompactMatrix.of(dataset, storage);
+            long baseSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+            CompletionService<KSweepResult> completion = new ExecutorCompletionService<>(executor);
+            for (int k = minK; k <= maxK; k++) {
+                final int kk = k;
+                completion.submit(() -> runOne(kk, baseSeed + kk, compact, pairwise));
+            }
+
+            Map<Integer, KSweepResult> results = new TreeMap<>();
+            for (int i = 0; i < candidates; i++) {
+                KSweepResult result = completion.take().get();
+                results.put(result.k(), result);
+                if (onResult != null) onResult.accept(result);
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("K sweep failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private KSweepResult runOne(int k, long runSeed, CompactMatrix compact, Future<PairwiseDistances> pairwise) throws Exception {
+        KMeansClusterer kmeans = new KMeansClusterer(dataset.withFreshLabels(), k, maxIterations);
+        if (compact != null) kmeans.setStorage(compact);
+        kmeans.setSeeding(seeding);
+        kmeans.setSeed(runSeed);
+        if (progressListener != null) kmeans.setListener((iteration, max, inertia) -> reportProgress(k, iteration * 1000 / max));
+        Dataset clustered = kmeans.fit();
+        double[] centroids = kmeans.getCentroidMatrix();
+
+        SilhouetteCalculator silCalc = new SilhouetteCalculator();
+        double silhouette = pairwise != null
+                ? silCalc.calculateOverallSilhouette(clustered, pairwise.get())
+                : silCalc.calculate(clustered, centroids, kmeans.getCentroidCount(), SilhouetteMode.SAMPLED).value();
+        // CH — із сум фінального проходу призначення; для DB після збіжності додається один прохід за сумами відстаней
+        ClusterStatistics stats = kmeans.getStatistics();
+        if (progressListener != null) reportProgress(k, 1000);
+        return new KSweepResult(k, clustered, centroids, silhouette, stats.calinskiHarabasz(), stats.daviesBouldin(),
+                kmeans.getInertia(), kmeans.getIterations(), List.copyOf(kmeans.getIterationHistory()));
+    }
+
+    // Одне дерево до maxK; для кожного K мітки, центроїди, інерція і CH читаються з нього,
+    // а суми відстаней для Девіса-Боулдіна і силует рахуються по точках, як і для звичайного прогону
+    private Map<Integer, KSweepResult> runBisecting(Consumer<KSweepResult> onResult) {
+        if (dataset.isWeighted()) throw new IllegalArgumentException("Bisecting sweep does not support weighted datasets");
+        BisectingKMeans bisectingKMeans = new BisectingKMeans(dataset, maxK, maxIterations);
+        bisectingKMeans.setParallelism(threads);
+        bisectingKMeans.setSeed(seed);
+        ClusterTree tree = bisectingKMeans.build();
+        PairwiseDistances pairwise = PairwiseDistances.bytesFor(dataset.size()) <= pairwiseMemoryLimit
+                ? PairwiseDistances.compute(dataset, DistanceKernels.EUCLIDEAN)
+                : null;
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int lastK = Math.min(maxK, tree.getMaxK());
+        Map<Integer, KSweepResult> results = new TreeMap<>();
+        for (int k = minK; k <= lastK; k++) {
+            KMeansClusterer.checkCancelled();
+            Dataset clustered = dataset.withLabels(tree.labels(k));
+            double[] centroids = tree.centroids(k);
+            int[] labels = clustered.getLabels();
+            AssignmentTask.Partial partial = new AssignmentTask.Partial(k, dims);
+            for (int p = 0; p < clustered.size(); p++) {
+                double d = DistanceKernels.SQUARED_EUCLIDEAN.distance(data, p * dims, centroids, labels[p] * dims, dims);
+                AssignmentTask.accumulate(partial, data, p * dims, dims, labels[p], d, 1.0);
+                partial.distanceSums[labels[p]] += Math.sqrt(d);
+            }
+            ClusterStatistics stats = ClusterStatistics.of(partial, centroids, dims);
+            SilhouetteCalculator silCalc = new SilhouetteCalculator();
+            silCalc.setParallelism(threads);
+            double silhouette = pairwise != null
+                    ? silCalc.calculateOverallSilhouette(clustered, pairwise)
+                    : silCalc.calculate(clustered, centroids, k, SilhouetteMode.SAMPLED).value();
+            KSweepResult result = new KSweepResult(k, clustered, centroids, silhouette, tree.calinskiHarabasz(k),
+                    stats.daviesBouldin(), tree.inertia(k), 0, List.of());
+            results.put(k, result);
+            if (onResult != null) onResult.accept(result);
+            if (progressListener != null) progressListener.accept((k - minK + 1.0) / (maxK - minK + 1));
+        }
+        return results;
+    }
+
+    // Доведення результату, знайденого на коресеті, до повних даних: Ллойд з його центроїдів як теплий старт.
+    // Силует — вибірковий, бо для повних даних матриця відстаней зазвичай завелика
+    public KSweepResult refine(KSweepResult approximate, Dataset full) {
+        KMeansClusterer kmeans = new KMeansClusterer(full.withFreshLabels(), approximate.k(), maxIterations);
+        kmeans.setInitialCentroids(approximate.centroids());
+        kmeans.setParallelism(threads);
+        kmeans.setStorage(storage);
+        Dataset clustered = kmeans.fit();
+        double[] centroids = kmeans.getCentroidMatrix();
+        SilhouetteCalculator silCalc = new SilhouetteCalculator();
+        silCalc.setParallelism(threads);
+        double silhouette = silCalc.calculate(clustered, centroids, kmeans.getCentroidCount(), SilhouetteMode.SAMPLED).value();
+        ClusterStatistics stats = kmeans.getStatistics();
+        return new KSweepResult(approximate.k(), clustered, centroids, silhouette, stats.calinskiHarabasz(), stats.daviesBouldin(),
+                kmeans.getInertia(), kmeans.getIterations(), List.copyOf(kmeans.getIterationHistory()));
+    }
+
+    // Прогрес кожного K у проміле; загальний — середнє по всіх K
+    private void reportProgress(int k, int permille) {
+        progress.set(k - minK, permille);
+        long total = 0;
+        for (int i = 0; i < progress.length(); i++) total += progress.get(i);
+        progressListener.accept(total / (1000.0 * progress.length()));
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.algo;
+
+import org.example.model.DataPoint;
+import org.example.model.Dataset;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+// Mini-batch k-means (Sculley, 2010): дані читаються пачками з ітератора, у пам'яті лише
+// одна пачка та центроїди. Кожен центроїд має власну швидкість навчання 1 / (кількість точок).
+public class MiniBatchKMeans {
+    private final int k;
+    private final int dims;
+    private final int batchSize;
+    private final double[] centroids;
+    private final long[] counts;
+    private final double[] batch;
+    private final int[] batchLabels;
+    private Random random = new Random();
+    private int initialized;
+    private long seenPoints;
+
+    public MiniBatchKMeans(int k, int dims, int batchSize) {
+        if (k < 1 || dims < 1 || batchSize < 1) throw new IllegalArgumentException("k, dims and batchSize must be positive");
+        this.k = k;
+        this.dims = dims;
+        this.batchSize = batchSize;
+        this.centroids = new double[k * dims];
+        this.counts = new long[k];
+        this.batch = new double[batchSize * dims];
+        this.batchLabels = new int[batchSize];
+    }
+
+    public void setSeed(long seed) { this.random = new Random(seed); }
+
+    public boolean isInitialized() { return initialized == k; }
+
+    public long getSeenPoints() { return seenPoints; }
+
+    public double[] getCentroidMatrix() { return centroids; }
+
+    public List<DataPoint> getCentroids() {
+        List<DataPoint> result = new ArrayList<>(initialized);
+        for (int c = 0; c < initialized; c++) {
+            result.add(new DataPoint(Arrays.copyOfRange(centroids, c * dims, (c + 1) * dims)));
+        }
+        return result;
+    }
+
+    // Один прохід по потоку; для кількох епох викликати повторно з новим ітератором
+    public void fit(Iterator<double[]> rows) {
+        while (rows.hasNext()) {
+            int count = 0;
+            while (count < batchSize && rows.hasNext()) {
+                System.arraycopy(rows.next(), 0, batch, count * dims, dims);
+                count++;
+            }
+            partialFit(batch, count);
+        }
+    }
+
+    // rows — count рядків підряд; пачка не більша за batchSize, бо під неї виділено буфер міток
+    public void partialFit(double[] rows, int count) {
+        if (count > batchSize) throw new IllegalArgumentException("Batch of " + count + " rows exceeds batchSize " + batchSize);
+        if (count > 0 && rows.length < (long) count * dims) {
+            throw new IllegalArgumentException("Row array is too short for " + count + "x" + dims);
+        }
+        if (count <= 0) return;
+        int start = 0;
+        if (initialized < k) start = seedFrom(rows, count);
+        if (start >= count) {
+            seenPoints += count;
+            return;
+        }
+
+        // Спершу призначення всієї пачки за "старими" центроїдами, потім градієнтний крок
+        for (int p = start; p < count; p++) batchLabels[p] = nearest(rows, p * dims);
+        for (int p = start; p < count; p++) {
+            int c = batchLabels[p];
+            counts[c]++;
+            double eta = 1.0 / counts[c];
+            int src = p * dims, dst = c * dims;
+            for (int j = 0; j < dims; j++) centroids[dst + j] += eta * (rows[src + j] - centroids[dst + j]);
+        }
+        seenPoints += count;
+    }
+
+    // Початкові центроїди: k-means++ по першій пачці (або по тому, що є, якщо пачка менша за K)
+    private int seedFrom(double[] rows, int count) {
+        int take = Math.min(k - initialized, count);
+        Dataset first = new Dataset(rows, count, dims);
+        double[] seeds = CentroidSeeder.kMeansPlusPlus(first, null, take, random);
+        System.arraycopy(seeds, 0, centroids, initialized * dims, take * dims);
+        for (int i = 0; i < take; i++) counts[initialized + i] = 1;
+        initialized += take;
+        return initialized < k ? count : 0;
+    }
+
+    private int nearest(double[] row, int offset) {
+        double best = Double.MAX_VALUE;
+        int bestIndex = -1;
+        for (int c = 0; c < initialized; c++) {
+            double sum = 0;
+            int off = c * dims;
+            for (int j = 0; j < dims; j++) {
+                double d = row[offset + j] - centroids[off + j];
+                sum += d * d;
+            }
+            if (sum < best) {
+                best = sum;
+                bestIndex = c;
+            }
+        }
+        return bestIndex;
+    }
+
+    public int predict(double[] row) {
+        if (initialized == 0) throw new IllegalStateException("Model is not fitted");
+        return nearest(row, 0);
+    }
+
+    // Фінальне маркування теж потокове: мітки віддаються по одній, нічого не накопичується
+    public void label(Iterator<double[]> rows, IntConsumer sink) {
+        while (rows.hasNext()) sink.accept(predict(rows.next()));
+    }
+
+    public void writeLabels(Iterator<double[]> rows, Writer out) throws IOException {
+        while (rows.hasNext()) {
+            out.write(Integer.toString(predict(rows.next())));
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.*;
+
+// n_init: кілька незалежних запусків k-means з різними seed, повертається найкращий за інерцією.
+// Інерція Ллойда спадає від ітерації до ітерації, тож порівнювати з фінальною інерцією переможця на
+// першій ітерації марно. Запуск зупиняється, якщо він гірший за найкращий завершений запуск
+// на тій самій ітерації (або за його фінальну інерцію, якщо той завершився раніше).
+public class MultiRestartKMeans {
+    private final Dataset dataset;
+    private final int k;
+    private final int maxIterations;
+    private final int restarts;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private SeedingStrategy seeding = SeedingStrategy.KMEANS_PLUS_PLUS;
+    private Long seed;
+    private double abandonMargin = 0.0;
+    private volatile double[] bestTrajectory;
+
+    public MultiRestartKMeans(Dataset dataset, int k, int maxIterations, int restarts) {
+        if (restarts < 1) throw new IllegalArgumentException("Restarts must be >= 1: " + restarts);
+        this.dataset = dataset;
+        this.k = k;
+        this.maxIterations = maxIterations;
+        this.restarts = restarts;
+    }
+
+    public void setThreads(int threads) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be >= 1: " + threads);
+        this.threads = threads;
+    }
+
+    public void setSeeding(SeedingStrategy seeding) { this.seeding = seeding; }
+
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    // 0.1 = зупиняти запуск, лише якщо він гірший за найкращий на 10% і більше
+    public void setAbandonMargin(double abandonMargin) {
+        if (abandonMargin < 0) throw new IllegalArgumentException("Margin must be >= 0: " + abandonMargin);
+        this.abandonMargin = abandonMargin;
+    }
+
+    // Сигнал зупинки з KMeansListener; без стеку, бо це звичайний шлях виконання
+    private static final class Abandoned extends RuntimeException {
+        final int iteration;
+        final double inertia;
+
+        Abandoned(int iteration, double inertia) {
+            super(null, null, false, false);
+            this.iteration = iteration;
+            this.inertia = inertia;
+        }
+    }
+
+    private static final class Run {
+        final RestartStats stats;
+        final KMeansClusterer kmeans;
+
+        Run(RestartStats stats, KMeansClusterer kmeans) {
+            this.stats = stats;
+            this.kmeans = kmeans;
+        }
+    }
+
+    public MultiRestartResult run() throws InterruptedException {
+        bestTrajectory = null;
+        long baseSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, restarts));
+        try {
+            List<Future<Run>> futures = new ArrayList<>(restarts);
+            for (int r = 0; r < restarts; r++) {
+                final int restart = r;
+                futures.add(executor.submit(() -> runOne(restart, baseSeed + restart)));
+            }
+            List<Run> runs = new ArrayList<>(restarts);
+            for (Future<Run> f : futures) runs.add(f.get());
+
+            Run best = runs.stream().filter(r -> !r.stats.abandoned())
+                    .min(Comparator.comparingDouble(r -> r.stats.inertia()))
+                    .orElseThrow(() -> new IllegalStateException("All restarts were abandoned"));
+            List<RestartStats> stats = new ArrayList<>(restarts);
+            for (Run r : runs) stats.add(r.stats);
+            return new MultiRestartResult(best.kmeans.getDataset(), best.kmeans.getCentroidMatrix(),
+                    best.stats.inertia(), best.stats.restart(), stats);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException("Restart failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Run runOne(int restart, long runSeed) {
+        long start = System.nanoTime();
+        KMeansClusterer kmeans = new KMeansClusterer(dataset.withFreshLabels(), k, maxIterations);
+        kmeans.setSeeding(seeding);
+        kmeans.setSeed(runSeed);
+        List<Double> trajectory = new ArrayList<>();
+        kmeans.setListener((iteration, max, inertia) -> {
+            trajectory.add(inertia);
+            double[] best = bestTrajectory;
+            if (best == null) return;
+            double reference = best[Math.min(iteration, best.length) - 1];
+            if (inertia > reference * (1 + abandonMargin)) throw new Abandoned(iteration, inertia);
+        });
+        try {
+            kmeans.fit();
+        } catch (Abandoned a) {
+            return new Run(new RestartStats(restart, runSeed, a.iteration, a.inertia, true, System.nanoTime() - start), null);
+        }
+        double inertia = kmeans.getInertia();
+        trajectory.add(inertia);
+        synchronized (this) {
+            double[] best = bestTrajectory;
+            if (best == null || inertia < best[best.length - 1]) {
+                bestTrajectory = trajectory.stream().mapToDouble(Double::doubleValue).toArray();
+            }
+        }
+        return new Run(new RestartStats(restart, runSeed, kmeans.getIterations(), inertia, false, System.nanoTime() - start), kmeans);
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.algo;
+
+import org.example.model.ClusterResult;
+import org.example.model.Dataset;
+import java.util.List;
+
+public record MultiRestartResult(Dataset clustered, double[] centroids, double inertia, int bestRestart,
+                                 List<RestartStats> restarts) {
+    public ClusterResult toClusterResult() {
+        return ClusterResult.of(clustered, centroids);
+    }
+
+    public long abandonedCount() {
+        return restarts.stream().filter(RestartStats::abandoned).count();
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.algo;
+
+import org.example.model.Dataset;
+import java.util.stream.IntStream;
+
+// Верхній трикутник матриці попарних відстаней (без діагоналі), рахується один раз
+// і спільно використовується прогонами для різних K. float вдвічі економить пам'ять.
+public final class PairwiseDistances {
+    private final int size;
+    private final float[] condensed;
+
+    private PairwiseDistances(int size, float[] condensed) {
+        this.size = size;
+        this.condensed = condensed;
+    }
+
+    public static long bytesFor(int n) {
+        return (long) n * (n - 1) / 2 * Float.BYTES;
+    }
+
+    public static PairwiseDistances compute(Dataset dataset, DistanceKernel kernel) {
+        int n = dataset.size();
+        long cells = (long) n * (n - 1) / 2;
+        if (cells > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Too many points for a pairwise matrix: " + n);
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        float[] condensed = new float[(int) cells];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            int base = rowStart(n, i);
+            for (int j = i + 1; j < n; j++) {
+                condensed[base + j - i - 1] = (float) kernel.distance(data, i * dims, data, j * dims, dims);
+            }
+        });
+        return new PairwiseDistances(n, condensed);
+    }
+
+    static int rowStart(int n, int i) {
+        return (int) ((long) i * n - (long) i * (i + 1) / 2);
+    }
+
+    public int size() { return size; }
+
+    public double get(int i, int j) {
+        if (i == j) return 0.0;
+        if (i > j) {
+            int t = i;
+            i = j;
+            j = t;
+        }
+        return condensed[rowStart(size, i) + j - i - 1];
+    }
+
+    float[] condensed() { return condensed; }
+}
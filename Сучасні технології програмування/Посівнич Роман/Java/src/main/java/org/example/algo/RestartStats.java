@@ -0,0 +1,5 @@
+package org.example.algo;
+
+// Підсумок одного перезапуску; для перерваних (abandoned) inertia — значення на момент зупинки
+public record RestartStats(int restart, long seed, int iterations, double inertia, boolean abandoned, long elapsedNanos) {
+}
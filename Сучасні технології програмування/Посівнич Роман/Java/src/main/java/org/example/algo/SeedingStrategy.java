@@ -0,0 +1,7 @@
+package org.example.algo;
+
+public enum SeedingStrategy {
+    RANDOM,             // K випадкових різних рядків
+    KMEANS_PLUS_PLUS,   // D²-вибірка (Arthur & Vassilvitskii, 2007)
+    KMEANS_PARALLEL     // k-means|| з надвибіркою за кілька паралельних раундів (Bahmani et al., 2012)
+}
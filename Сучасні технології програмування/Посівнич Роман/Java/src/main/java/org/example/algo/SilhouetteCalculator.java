@@ -1,38 +1,276 @@
 package org.example.algo;
 
 import org.example.model.DataPoint;
+import org.example.model.Dataset;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
+// Для зваженого набору суми відстаней до кластерів зважені вагами рядків (ваги можуть бути дробовими):
+// a(i) — середнє по решті свого кластера, тобто ділиться на його вагу без ваги самої точки,
+// а загальний силует — зважене середнє s(i). Для незважених даних формули збігаються зі звичайними.
 public class SilhouetteCalculator {
+    private static final int BLOCK = 256;
+    private static final double Z_95 = 1.959964;
+
+    private final DistanceKernel kernel;
+    private int parallelism = 1;
+    private int sampleSize = 2000;
+    private long seed = 42L;
+
+    public SilhouetteCalculator() {
+        this(DistanceKernels.EUCLIDEAN);
+    }
+
+    public SilhouetteCalculator(DistanceKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be >= 1: " + parallelism);
+        this.parallelism = parallelism;
+    }
+
+    public void setSampleSize(int sampleSize) {
+        if (sampleSize < 2) throw new IllegalArgumentException("Sample size must be >= 2: " + sampleSize);
+        this.sampleSize = sampleSize;
+    }
+
+    public void setSeed(long seed) { this.seed = seed; }
+
     public double calculateOverallSilhouette(List<DataPoint> points) {
         if (points == null || points.size() <= 1) return 0.0;
-        Map<Integer, List<DataPoint>> clusters = points.stream()
-                .collect(Collectors.groupingBy(DataPoint::getClusterId));
-        if (clusters.size() <= 1) return 0.0;
-
-        double totalSilhouette = 0.0;
-        for (DataPoint point : points) {
-            int currentClusterId = point.getClusterId();
-            List<DataPoint> currentCluster = clusters.get(currentClusterId);
-            double a_i = 0.0;
-            if (currentCluster.size() > 1) {
-                double sumDistances = currentCluster.stream()
-                        .filter(other -> other != point)
-                        .mapToDouble(point::distanceTo).sum();
-                a_i = sumDistances / (currentCluster.size() - 1);
+        return calculateOverallSilhouette(Dataset.fromPoints(points));
+    }
+
+    public double calculateOverallSilhouette(Dataset dataset) {
+        return calculate(dataset, null, 0, SilhouetteMode.EXACT).value();
+    }
+
+    // Точний силует за готовою матрицею відстаней: для кожного K лише O(N²) додавань, без обчислення відстаней
+    public double calculateOverallSilhouette(Dataset dataset, PairwiseDistances distances) {
+        int n = dataset.size();
+        if (n <= 1) return 0.0;
+        if (distances.size() != n) throw new IllegalArgumentException("Distance matrix is for " + distances.size() + " points, dataset has " + n);
+        int[] labels = dataset.getLabels();
+        Groups g = new Groups(dataset);
+        if (g.nonEmpty <= 1) return 0.0;
+
+        float[] condensed = distances.condensed();
+        double[] sums = new double[n * g.clusters];
+        for (int i = 0; i < n; i++) {
+            int li = labels[i] - g.minLabel;
+            double wi = dataset.getWeight(i);
+            int base = PairwiseDistances.rowStart(n, i) - i - 1;
+            for (int j = i + 1; j < n; j++) {
+                double d = condensed[base + j];
+                sums[i * g.clusters + labels[j] - g.minLabel] += dataset.getWeight(j) * d;
+                sums[j * g.clusters + li] += wi * d;
+            }
+        }
+        return weightedMean(dataset, sums, g);
+    }
+
+    // centroids/k потрібні лише для SIMPLIFIED
+    public SilhouetteEstimate calculate(Dataset dataset, double[] centroids, int k, SilhouetteMode mode) {
+        int n = dataset.size();
+        if (n <= 1) return SilhouetteEstimate.exact(0.0, n);
+        switch (mode) {
+            case SIMPLIFIED: return SilhouetteEstimate.exact(simplified(dataset, centroids, k), n);
+            case SAMPLED: return sampled(dataset);
+            default: return SilhouetteEstimate.exact(exact(dataset), n);
+        }
+    }
+
+    // Мітки можуть бути довільними (наприклад, -1 для шуму), тому зсуваємо їх до [0, clusters)
+    // sizes — суми ваг кластерів (для незважених даних — кількості точок)
+    private static final class Groups {
+        final int minLabel;
+        final int clusters;
+        final double[] sizes;
+        final int nonEmpty;
+
+        Groups(Dataset dataset) {
+            int n = dataset.size();
+            int[] labels = dataset.getLabels();
+            int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+            for (int p = 0; p < n; p++) {
+                min = Math.min(min, labels[p]);
+                max = Math.max(max, labels[p]);
+            }
+            minLabel = min;
+            clusters = max - min + 1;
+            sizes = new double[clusters];
+            for (int p = 0; p < n; p++) sizes[labels[p] - min] += dataset.getWeight(p);
+            int nz = 0;
+            for (double c : sizes) if (c > 0) nz++;
+            nonEmpty = nz;
+        }
+    }
+
+    private static double weightedMean(Dataset dataset, double[] sums, Groups g) {
+        int[] labels = dataset.getLabels();
+        double total = 0.0;
+        for (int i = 0; i < dataset.size(); i++) {
+            total += dataset.getWeight(i) * pointSilhouette(sums, i * g.clusters, labels[i] - g.minLabel, dataset.getWeight(i), g);
+        }
+        return total / dataset.totalWeight();
+    }
+
+    private double exact(Dataset dataset) {
+        int n = dataset.size();
+        Groups g = new Groups(dataset);
+        if (g.nonEmpty <= 1) return 0.0;
+
+        // sums[i * clusters + c] = (зважена) сума відстаней від точки i до всіх точок кластера c
+        double[] sums = new double[n * g.clusters];
+        if (parallelism == 1) symmetricSums(dataset, g, sums);
+        else blockedSums(dataset, g, sums);
+        return weightedMean(dataset, sums, g);
+    }
+
+    // Послідовно: кожна пара рахується один раз, результат пишеться в обидва рядки
+    private void symmetricSums(Dataset dataset, Groups g, double[] sums) {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        for (int i = 0; i < n; i++) {
+            int li = labels[i] - g.minLabel;
+            double wi = dataset.getWeight(i);
+            for (int j = i + 1; j < n; j++) {
+                double d = kernel.distance(data, i * dims, data, j * dims, dims);
+                sums[i * g.clusters + labels[j] - g.minLabel] += dataset.getWeight(j) * d;
+                sums[j * g.clusters + li] += wi * d;
             }
-            double b_i = Double.MAX_VALUE;
-            for (Map.Entry<Integer, List<DataPoint>> entry : clusters.entrySet()) {
-                if (entry.getKey() != currentClusterId) {
-                    double avgDistance = entry.getValue().stream()
-                            .mapToDouble(point::distanceTo).average().orElse(Double.MAX_VALUE);
-                    b_i = Math.min(b_i, avgDistance);
+        }
+    }
+
+    // Паралельно: кожен блок рядків i пише лише у свої рядки sums, тож синхронізація не потрібна.
+    // Блок j обходиться цілком для всіх i блоку, поки він у кеші.
+    private void blockedSums(Dataset dataset, Groups g, double[] sums) {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        int blocks = (n + BLOCK - 1) / BLOCK;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(() -> IntStream.range(0, blocks).parallel().forEach(bi -> {
+                int iFrom = bi * BLOCK, iTo = Math.min(n, iFrom + BLOCK);
+                for (int jFrom = 0; jFrom < n; jFrom += BLOCK) {
+                    int jTo = Math.min(n, jFrom + BLOCK);
+                    for (int i = iFrom; i < iTo; i++) {
+                        int row = i * g.clusters - g.minLabel;
+                        for (int j = jFrom; j < jTo; j++) {
+                            if (i != j) sums[row + labels[j]] += dataset.getWeight(j) * kernel.distance(data, i * dims, data, j * dims, dims);
+                        }
+                    }
                 }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Точка, одна у своєму кластері (решта ваги ~0 з точністю до округлення), має a(i) = 0
+    private static double pointSilhouette(double[] sums, int row, int own, double weight, Groups g) {
+        double rest = g.sizes[own] - weight;
+        double a_i = rest > 1e-9 * g.sizes[own] ? sums[row + own] / rest : 0.0;
+        double b_i = Double.MAX_VALUE;
+        for (int c = 0; c < g.clusters; c++) {
+            if (c == own || g.sizes[c] == 0) continue;
+            b_i = Math.min(b_i, sums[row + c] / g.sizes[c]);
+        }
+        double denom = Math.max(a_i, b_i);
+        return (b_i != Double.MAX_VALUE && denom > 0) ? (b_i - a_i) / denom : 0.0;
+    }
+
+    // Спрощений силует: a = відстань до свого центроїда, b = до найближчого чужого
+    private double simplified(Dataset dataset, double[] centroids, int k) {
+        if (centroids == null || k <= 1) return 0.0;
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int[] labels = dataset.getLabels();
+        double total = 0.0;
+        for (int p = 0; p < n; p++) {
+            int own = labels[p];
+            double w = dataset.getWeight(p);
+            if (own < 0 || own >= k) continue;
+            double a = kernel.distance(data, p * dims, centroids, own * dims, dims);
+            double b = Double.MAX_VALUE;
+            for (int c = 0; c < k; c++) {
+                if (c != own) b = Math.min(b, kernel.distance(data, p * dims, centroids, c * dims, dims));
+            }
+            double denom = Math.max(a, b);
+            if (denom > 0) total += w * (b - a) / denom;
+        }
+        return total / dataset.totalWeight();
+    }
+
+    // Точний s(i) для m випадкових точок (кожна проти всього набору), O(m·N)
+    private SilhouetteEstimate sampled(Dataset dataset) {
+        int n = dataset.size();
+        int[] labels = dataset.getLabels();
+        Groups g = new Groups(dataset);
+        if (g.nonEmpty <= 1) return SilhouetteEstimate.exact(0.0, n);
+        if (sampleSize >= n) return SilhouetteEstimate.exact(exact(dataset), n);
+
+        int m = sampleSize;
+        int[] sample = sampleIndices(n, m, new Random(seed));
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        double[] values = new double[m];
+        IntStream range = IntStream.range(0, m);
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        Runnable body = () -> (pool != null ? range.parallel() : range).forEach(s -> {
+            int i = sample[s];
+            double[] row = new double[g.clusters];
+            for (int j = 0; j < n; j++) {
+                if (j != i) row[labels[j] - g.minLabel] += dataset.getWeight(j) * kernel.distance(data, i * dims, data, j * dims, dims);
             }
-            totalSilhouette += (b_i != Double.MAX_VALUE) ? (b_i - a_i) / Math.max(a_i, b_i) : 0.0;
+            values[s] = pointSilhouette(row, 0, labels[i] - g.minLabel, dataset.getWeight(i), g);
+        });
+        try {
+            if (pool != null) pool.submit(body).join();
+            else body.run();
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+
+        // Відношення Σw·s / Σw по вибірці; без ваг — звичайне середнє і дисперсія вибірки / m
+        double weightSum = 0, mean = 0;
+        for (int s = 0; s < m; s++) {
+            double w = dataset.getWeight(sample[s]);
+            weightSum += w;
+            mean += w * values[s];
+        }
+        mean /= weightSum;
+        double var = 0;
+        for (int s = 0; s < m; s++) {
+            double w = dataset.getWeight(sample[s]);
+            var += w * w * (values[s] - mean) * (values[s] - mean);
+        }
+        var *= (double) m / ((m - 1) * weightSum * weightSum);
+        double fpc = Math.sqrt((double) (n - m) / (n - 1));
+        double half = Z_95 * Math.sqrt(var) * fpc;
+        return new SilhouetteEstimate(mean, mean - half, mean + half, m);
+    }
+
+    // Часткове перемішування Фішера-Єйтса: m різних індексів без повторень
+    private static int[] sampleIndices(int n, int m, Random random) {
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) all[i] = i;
+        for (int i = 0; i < m; i++) {
+            int j = i + random.nextInt(n - i);
+            int t = all[i];
+            all[i] = all[j];
+            all[j] = t;
         }
-        return totalSilhouette / points.size();
+        int[] sample = new int[m];
+        System.arraycopy(all, 0, sample, 0, m);
+        return sample;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,8 @@
+package org.example.algo;
+
+// Значення силуету; для SAMPLED — 95% довірчий інтервал, для інших режимів lower == upper == value
+public record SilhouetteEstimate(double value, double lower, double upper, int sampleSize) {
+    public static SilhouetteEstimate exact(double value, int size) {
+        return new SilhouetteEstimate(value, value, value, size);
+    }
+}
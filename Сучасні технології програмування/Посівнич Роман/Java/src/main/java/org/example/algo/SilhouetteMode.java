@@ -0,0 +1,7 @@
+package org.example.algo;
+
+public enum SilhouetteMode {
+    EXACT,       // усі пари точок, O(N²); блочно і паралельно
+    SIMPLIFIED,  // відстані до центроїдів замість середніх по кластерах, O(N·K)
+    SAMPLED      // точний силует для випадкової вибірки точок + довірчий інтервал
+}
@@ -0,0 +1,73 @@
+package org.example.algo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Реалізації через Vector API. Завантажується лише рефлексивно з DistanceKernels,
+// тому без модуля jdk.incubator.vector клас просто не використовується.
+final class VectorDistanceKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorDistanceKernels() {}
+
+    static DistanceKernel[] kernels() {
+        return new DistanceKernel[]{
+                VectorDistanceKernels::squaredEuclidean,
+                (a, ao, b, bo, len) -> Math.sqrt(squaredEuclidean(a, ao, b, bo, len)),
+                VectorDistanceKernels::manhattan,
+                VectorDistanceKernels::cosine
+        };
+    }
+
+    static double squaredEuclidean(double[] a, int ao, double[] b, int bo, int len) {
+        if (len < SPECIES.length()) return DistanceKernels.squaredEuclidean(a, ao, b, bo, len);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            DoubleVector d = DoubleVector.fromArray(SPECIES, a, ao + i).sub(DoubleVector.fromArray(SPECIES, b, bo + i));
+            acc = d.fma(d, acc);
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            double d = a[ao + i] - b[bo + i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    static double manhattan(double[] a, int ao, double[] b, int bo, int len) {
+        if (len < SPECIES.length()) return DistanceKernels.manhattan(a, ao, b, bo, len);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(SPECIES, a, ao + i).sub(DoubleVector.fromArray(SPECIES, b, bo + i)).abs());
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) sum += Math.abs(a[ao + i] - b[bo + i]);
+        return sum;
+    }
+
+    static double cosine(double[] a, int ao, double[] b, int bo, int len) {
+        if (len < SPECIES.length()) return DistanceKernels.cosine(a, ao, b, bo, len);
+        DoubleVector dot = DoubleVector.zero(SPECIES), na = DoubleVector.zero(SPECIES), nb = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (int upper = SPECIES.loopBound(len); i < upper; i += SPECIES.length()) {
+            DoubleVector x = DoubleVector.fromArray(SPECIES, a, ao + i);
+            DoubleVector y = DoubleVector.fromArray(SPECIES, b, bo + i);
+            dot = x.fma(y, dot);
+            na = x.fma(x, na);
+            nb = y.fma(y, nb);
+        }
+        double d = dot.reduceLanes(VectorOperators.ADD);
+        double sa = na.reduceLanes(VectorOperators.ADD);
+        double sb = nb.reduceLanes(VectorOperators.ADD);
+        for (; i < len; i++) {
+            double x = a[ao + i], y = b[bo + i];
+            d += x * y;
+            sa += x * x;
+            sb += y * y;
+        }
+        return DistanceKernels.cosineFrom(d, sa, sb);
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.data;
+
+import org.example.model.Dataset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+// Однопрохідні статистики стовпців: min/max, середнє і M2 за Велфордом, плюс (для ROBUST) резервуарна вибірка рядків.
+// Акумулятори окремих частин даних зливаються формулою Чана, тож збір можна робити паралельно.
+public class ColumnStatistics {
+    private static final int CHUNK = 8192;
+
+    private final int dims;
+    private final int reservoirSize;
+    private final double[] min;
+    private final double[] max;
+    private final double[] mean;
+    private final double[] m2;
+    private final double[] reservoir;
+    private final Random random;
+    private long count;
+    private int sampled;
+
+    public ColumnStatistics(int dims) {
+        this(dims, 0, 0L);
+    }
+
+    // reservoirSize = 0 — без вибірки (медіана й квартилі тоді недоступні)
+    public ColumnStatistics(int dims, int reservoirSize, long seed) {
+        if (reservoirSize < 0) throw new IllegalArgumentException("Reservoir size must be >= 0: " + reservoirSize);
+        this.dims = dims;
+        this.reservoirSize = reservoirSize;
+        this.min = new double[dims];
+        this.max = new double[dims];
+        this.mean = new double[dims];
+        this.m2 = new double[dims];
+        this.reservoir = new double[reservoirSize * dims];
+        this.random = new Random(seed);
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+    }
+
+    public static ColumnStatistics of(Iterator<double[]> rows, int dims, int reservoirSize, long seed) {
+        ColumnStatistics stats = new ColumnStatistics(dims, reservoirSize, seed);
+        while (rows.hasNext()) {
+            double[] row = rows.next();
+            stats.accept(row, 0);
+        }
+        return stats;
+    }
+
+    // Паралельно по шматках по CHUNK рядків, потім злиття
+    public static ColumnStatistics of(Dataset dataset, int reservoirSize, long seed) {
+        int n = dataset.size();
+        int dims = dataset.getDimensions();
+        double[] data = dataset.getData();
+        int chunks = (n + CHUNK - 1) / CHUNK;
+        return IntStream.range(0, chunks).parallel().mapToObj(c -> {
+            ColumnStatistics part = new ColumnStatistics(dims, reservoirSize, seed + c);
+            for (int p = c * CHUNK, to = Math.min(n, p + CHUNK); p < to; p++) part.accept(data, p * dims);
+            return part;
+        }).reduce((a, b) -> {
+            a.merge(b);
+            return a;
+        }).orElseGet(() -> new ColumnStatistics(dims, reservoirSize, seed));
+    }
+
+    public void accept(double[] row, int offset) {
+        count++;
+        for (int j = 0; j < dims; j++) {
+            double x = row[offset + j];
+            if (x < min[j]) min[j] = x;
+            if (x > max[j]) max[j] = x;
+            double delta = x - mean[j];
+            mean[j] += delta / count;
+            m2[j] += delta * (x - mean[j]);
+        }
+        if (reservoirSize == 0) return;
+        // Алгоритм R: кожен рядок потрапляє у вибірку з імовірністю reservoirSize / count
+        if (sampled < reservoirSize) {
+            System.arraycopy(row, offset, reservoir, sampled++ * dims, dims);
+        } else {
+            long r = (long) (random.nextDouble() * count);
+            if (r < reservoirSize) System.arraycopy(row, offset, reservoir, (int) r * dims, dims);
+        }
+    }
+
+    public void merge(ColumnStatistics other) {
+        if (other.dims != dims) throw new IllegalArgumentException("Column count differs: " + other.dims + " vs " + dims);
+        if (other.count == 0) return;
+        long n = count + other.count;
+        for (int j = 0; j < dims; j++) {
+            min[j] = Math.min(min[j], other.min[j]);
+            max[j] = Math.max(max[j], other.max[j]);
+            double delta = other.mean[j] - mean[j];
+            m2[j] += other.m2[j] + delta * delta * ((double) count * other.count / n);
+            mean[j] += delta * other.count / n;
+        }
+        mergeReservoir(other);
+        count = n;
+    }
+
+    // Кожне місце нової вибірки береться з того резервуара, що представляє більше ще не взятих рядків
+    private void mergeReservoir(ColumnStatistics other) {
+        if (reservoirSize == 0) return;
+        int take = Math.min(reservoirSize, sampled + other.sampled);
+        double[] a = Arrays.copyOf(reservoir, sampled * dims);
+        double[] b = Arrays.copyOf(other.reservoir, other.sampled * dims);
+        int leftA = sampled, leftB = other.sampled;
+        double weightA = (double) count / Math.max(1, sampled), weightB = (double) other.count / Math.max(1, other.sampled);
+        for (int s = 0; s < take; s++) {
+            boolean fromA = leftB == 0 || (leftA > 0 && random.nextDouble() * (leftA * weightA + leftB * weightB) < leftA * weightA);
+            double[] src = fromA ? a : b;
+            int left = fromA ? leftA-- : leftB--;
+            int pick = random.nextInt(left);
+            System.arraycopy(src, pick * dims, reservoir, s * dims, dims);
+            System.arraycopy(src, (left - 1) * dims, src, pick * dims, dims);
+        }
+        sampled = take;
+    }
+
+    public int getDimensions() { return dims; }
+    public long getCount() { return count; }
+    public double getMin(int col) { return min[col]; }
+    public double getMax(int col) { return max[col]; }
+    public double getMean(int col) { return mean[col]; }
+
+    // Вибіркова дисперсія (n - 1)
+    public double getVariance(int col) {
+        return count > 1 ? m2[col] / (count - 1) : 0.0;
+    }
+
+    public double getStandardDeviation(int col) { return Math.sqrt(getVariance(col)); }
+
+    public boolean hasSample() { return sampled > 0; }
+
+    // Квантиль за резервуаром (точний, якщо всі рядки вмістилися), лінійна інтерполяція
+    public double quantile(int col, double q) {
+        if (sampled == 0) throw new IllegalStateException("No reservoir sample; create statistics with reservoirSize > 0");
+        double[] values = new double[sampled];
+        for (int s = 0; s < sampled; s++) values[s] = reservoir[s * dims + col];
+        Arrays.sort(values);
+        double pos = q * (sampled - 1);
+        int lo = (int) Math.floor(pos);
+        int hi = Math.min(sampled - 1, lo + 1);
+        return values[lo] + (values[hi] - values[lo]) * (pos - lo);
+    }
+}
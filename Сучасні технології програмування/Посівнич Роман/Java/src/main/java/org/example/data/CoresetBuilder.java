@@ -0,0 +1,128 @@
+package org.example.data;
+
+import org.example.model.Dataset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+
+// Легкий коресет (Bachem, Lucic, Krause, 2018) за один прохід по даних. Рядок вибирається з імовірністю
+// q(x) = 1/(2N) + d(x, μ)² / (2·Σd²), де μ — середнє набору, і отримує вагу 1 / (m·q(x)).
+// Вибірка — зважений резервуар A-ES (Efraimidis & Spirakis, 2006) з ключем ln(u) / w. Оскільки μ відоме
+// лише в кінці, вага рядка при надходженні рахується від поточного середнього й дисперсії з ColumnStatistics:
+// w = 1 + d(x, μ_t)² / σ_t² (масштаб не залежить від номера рядка, тож ключі ранніх і пізніх рядків порівнянні).
+// Фінальні ваги рахуються вже за точними μ і Σd² і нормуються так, щоб їхня сума дорівнювала N.
+// Для відсортованих за ознакою даних поточне середнє на початку зсунуте, тож вибірка менш точна.
+public class CoresetBuilder {
+    private final int dims;
+    private final int capacity;
+    private final ColumnStatistics stats;
+    private final Random random;
+    private final double[] rows;
+    private final double[] keys;
+    // Мін-купа над слотами резервуару за ключем: корінь — найслабший кандидат на витіснення
+    private final int[] heap;
+    private int filled;
+
+    public CoresetBuilder(int dims, int size, long seed) {
+        if (size < 1) throw new IllegalArgumentException("Coreset size must be >= 1: " + size);
+        this.dims = dims;
+        this.capacity = size;
+        this.stats = new ColumnStatistics(dims);
+        this.random = new Random(seed);
+        this.rows = new double[size * dims];
+        this.keys = new double[size];
+        this.heap = new int[size];
+    }
+
+    public static Dataset of(Dataset dataset, int size, long seed) {
+        CoresetBuilder builder = new CoresetBuilder(dataset.getDimensions(), size, seed);
+        double[] data = dataset.getData();
+        for (int p = 0; p < dataset.size(); p++) builder.accept(data, p * dataset.getDimensions());
+        return builder.build();
+    }
+
+    public static Dataset of(Iterator<double[]> rows, int dims, int size, long seed) {
+        CoresetBuilder builder = new CoresetBuilder(dims, size, seed);
+        while (rows.hasNext()) builder.accept(rows.next(), 0);
+        return builder.build();
+    }
+
+    public long getCount() { return stats.getCount(); }
+
+    public void accept(double[] row, int offset) {
+        stats.accept(row, offset);
+        double spread = 0, distance = 0;
+        for (int j = 0; j < dims; j++) {
+            double d = row[offset + j] - stats.getMean(j);
+            spread += stats.getVariance(j);
+            distance += d * d;
+        }
+        double weight = spread > 0 ? 1 + distance / spread : 1;
+        double key = Math.log(1 - random.nextDouble()) / weight;
+        if (filled < capacity) {
+            int slot = filled++;
+            System.arraycopy(row, offset, rows, slot * dims, dims);
+            keys[slot] = key;
+            heap[slot] = slot;
+            siftUp(slot);
+        } else if (key > keys[heap[0]]) {
+            int slot = heap[0];
+            System.arraycopy(row, offset, rows, slot * dims, dims);
+            keys[slot] = key;
+            siftDown(0);
+        }
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[heap[parent]] <= keys[heap[i]]) return;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int smallest = i, l = 2 * i + 1, r = l + 1;
+            if (l < filled && keys[heap[l]] < keys[heap[smallest]]) smallest = l;
+            if (r < filled && keys[heap[r]] < keys[heap[smallest]]) smallest = r;
+            if (smallest == i) return;
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int t = heap[a];
+        heap[a] = heap[b];
+        heap[b] = t;
+    }
+
+    // Якщо рядків не більше за розмір коресету, повертаються всі з вагою 1
+    public Dataset build() {
+        int m = filled;
+        double[] data = Arrays.copyOf(rows, m * dims);
+        long n = stats.getCount();
+        double[] weights = new double[m];
+        if (n <= capacity) {
+            Arrays.fill(weights, 1.0);
+            return new Dataset(data, m, dims).withWeights(weights);
+        }
+        double total = 0;
+        for (int j = 0; j < dims; j++) total += stats.getVariance(j) * (n - 1);
+        double sum = 0;
+        for (int s = 0; s < m; s++) {
+            double distance = 0;
+            for (int j = 0; j < dims; j++) {
+                double d = data[s * dims + j] - stats.getMean(j);
+                distance += d * d;
+            }
+            double q = 0.5 / n + (total > 0 ? 0.5 * distance / total : 0.5 / n);
+            weights[s] = 1 / (m * q);
+            sum += weights[s];
+        }
+        for (int s = 0; s < m; s++) weights[s] *= n / sum;
+        return new Dataset(data, m, dims).withWeights(weights);
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Потокове читання числових рядків CSV: у пам'яті лише поточний рядок.
+public class CsvRowReader implements Iterator<double[]>, AutoCloseable {
+    private final BufferedReader reader;
+    private final int[] columns;
+    private final char delimiter;
+    private double[] next;
+    private long lineNumber;
+
+    public CsvRowReader(BufferedReader reader, int[] columns, char delimiter, boolean skipHeader) {
+        this.reader = reader;
+        this.columns = columns;
+        this.delimiter = delimiter;
+        try {
+            if (skipHeader && reader.readLine() != null) lineNumber++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        advance();
+    }
+
+    public static CsvRowReader open(Path path, int[] columns, boolean skipHeader) throws IOException {
+        return new CsvRowReader(Files.newBufferedReader(path, StandardCharsets.UTF_8), columns, ',', skipHeader);
+    }
+
+    @Override
+    public boolean hasNext() { return next != null; }
+
+    @Override
+    public double[] next() {
+        if (next == null) throw new NoSuchElementException();
+        double[] row = next;
+        advance();
+        return row;
+    }
+
+    private void advance() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                lineNumber++;
+            } while (line != null && line.isBlank());
+            next = line == null ? null : parse(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Як і DatasetLoader, короткий рядок чи нечислове поле — помилка з номером рядка, а не тихий 0.0
+    private double[] parse(String line) {
+        double[] row = new double[columns.length];
+        int field = 0, start = 0, found = 0;
+        for (int i = 0; i <= line.length(); i++) {
+            if (i < line.length() && line.charAt(i) != delimiter) continue;
+            for (int c = 0; c < columns.length; c++) {
+                if (columns[c] != field) continue;
+                String text = line.substring(start, i).trim();
+                try {
+                    row[c] = Double.parseDouble(text);
+                } catch (NumberFormatException e) {
+                    throw new NumberFormatException("Bad number '" + text + "' at line " + lineNumber);
+                }
+                found++;
+            }
+            field++;
+            start = i + 1;
+        }
+        if (found < columns.length) throw new NumberFormatException("Line " + lineNumber + " has only " + field + " fields");
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException { reader.close(); }
+}
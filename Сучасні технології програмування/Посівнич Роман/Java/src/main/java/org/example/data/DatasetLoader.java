@@ -0,0 +1,336 @@
+package org.example.data;
+
+import org.example.model.Dataset;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// Завантаження числових стовпців CSV через mmap: файл ріжеться на шматки по межах рядків,
+// шматки розбираються паралельно прямо з байтів (без String на кожне поле).
+// Результат можна зберегти у стовпцевий бінарний кеш, який потім читається теж через mmap.
+public class DatasetLoader {
+    private static final int CACHE_MAGIC = 0x4B4D4353; // "KMCS"
+    private static final int CACHE_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8 + 8 + 4;
+    private static final long MIN_CHUNK = 1L << 20;
+    private static final long MAX_CHUNK = 256L << 20;
+    // Кеш мапиться вікнами: один map() не може бути більшим за Integer.MAX_VALUE байт
+    private static final int MAP_WINDOW_VALUES = 16 << 20;
+    // Найбільший double[], який дозволяє JVM
+    private static final long MAX_VALUES = Integer.MAX_VALUE - 8;
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private final int[] columns;
+    private final byte delimiter;
+    private final boolean skipHeader;
+
+    public DatasetLoader(int[] columns, char delimiter, boolean skipHeader) {
+        if (columns.length == 0) throw new IllegalArgumentException("No columns selected");
+        this.columns = columns.clone();
+        this.delimiter = (byte) delimiter;
+        this.skipHeader = skipHeader;
+    }
+
+    public DatasetLoader(int[] columns, boolean skipHeader) {
+        this(columns, ',', skipHeader);
+    }
+
+    // Кеш поруч із файлом; перебудовується, якщо CSV змінився або вибрано інші стовпці
+    public Dataset load(Path csv) throws IOException {
+        Path cache = cachePathFor(csv);
+        Dataset cached = readCacheIfFresh(cache, csv);
+        if (cached != null) return cached;
+        Dataset dataset = parseCsv(csv);
+        try {
+            writeCache(dataset, cache, csv);
+        } catch (IOException ignored) {
+            // Каталог тільки для читання — просто працюємо без кешу
+        }
+        return dataset;
+    }
+
+    public static Path cachePathFor(Path csv) {
+        return csv.resolveSibling(csv.getFileName() + ".cols");
+    }
+
+    public Dataset parseCsv(Path csv) throws IOException {
+        try (FileChannel channel = FileChannel.open(csv, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = skipHeader ? lineEnd(channel, 0, size) : 0;
+            long[] bounds = chunkBounds(channel, start, size);
+            int chunks = bounds.length - 1;
+            double[][] parts = new double[chunks][];
+            int[] rows = new int[chunks];
+            IntStream.range(0, chunks).parallel().forEach(c -> {
+                try {
+                    MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, bounds[c], bounds[c + 1] - bounds[c]);
+                    Chunk chunk = parseChunk(buf, bounds[c]);
+                    parts[c] = chunk.values;
+                    rows[c] = chunk.rows;
+                } catch (IOException e) {
+                    throw new java.io.UncheckedIOException(e);
+                }
+            });
+            long rowCount = 0;
+            for (int r : rows) rowCount += r;
+            int dims = columns.length;
+            checkShape(rowCount, dims, csv);
+            int total = (int) rowCount;
+            double[] data = new double[total * dims];
+            int at = 0;
+            for (int c = 0; c < chunks; c++) {
+                System.arraycopy(parts[c], 0, data, at, rows[c] * dims);
+                at += rows[c] * dims;
+            }
+            return new Dataset(data, total, dims);
+        } catch (java.io.UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Межі шматків зсуваються до наступного '\n', тож кожен рядок цілком потрапляє в один шматок
+    private static long[] chunkBounds(FileChannel channel, long start, long size) throws IOException {
+        int parts = Runtime.getRuntime().availableProcessors() * 4;
+        long chunk = Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, (size - start) / parts + 1));
+        List<Long> bounds = new ArrayList<>();
+        bounds.add(start);
+        long pos = start;
+        while (pos < size) {
+            long next = pos + chunk >= size ? size : lineEnd(channel, pos + chunk, size);
+            bounds.add(next);
+            pos = next;
+        }
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    // Позиція одразу після першого '\n', починаючи з from
+    private static long lineEnd(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(8192);
+        long pos = from;
+        while (pos < size) {
+            buf.clear();
+            int read = channel.read(buf, pos);
+            if (read <= 0) break;
+            for (int i = 0; i < read; i++) {
+                if (buf.get(i) == '\n') return pos + i + 1;
+            }
+            pos += read;
+        }
+        return size;
+    }
+
+    private static final class Chunk {
+        double[] values = new double[1024];
+        int rows;
+    }
+
+    private Chunk parseChunk(ByteBuffer buf, long fileOffset) {
+        int dims = columns.length;
+        int maxColumn = 0;
+        for (int c : columns) maxColumn = Math.max(maxColumn, c);
+        Chunk chunk = new Chunk();
+        double[] row = new double[dims];
+        int limit = buf.limit();
+        int pos = 0;
+        while (pos < limit) {
+            int lineStart = pos;
+            int field = 0, fieldStart = pos, found = 0;
+            boolean blank = true;
+            while (pos <= limit) {
+                byte b = pos < limit ? buf.get(pos) : (byte) '\n';
+                if (b == delimiter || b == '\n') {
+                    if (field <= maxColumn) {
+                        for (int c = 0; c < dims; c++) {
+                            if (columns[c] == field) {
+                                row[c] = parseDouble(buf, fieldStart, pos, fileOffset);
+                                found++;
+                            }
+                        }
+                    }
+                    field++;
+                    fieldStart = pos + 1;
+                    if (b == '\n') break;
+                } else if (b != '\r' && b != ' ') {
+                    blank = false;
+                }
+                pos++;
+            }
+            pos++;
+            if (blank) continue;
+            if (found < dims) throw new NumberFormatException("Line at byte " + (fileOffset + lineStart) + " has only " + field + " fields");
+            if ((chunk.rows + 1) * dims > chunk.values.length) chunk.values = Arrays.copyOf(chunk.values, chunk.values.length * 2);
+            System.arraycopy(row, 0, chunk.values, chunk.rows * dims, dims);
+            chunk.rows++;
+        }
+        return chunk;
+    }
+
+    // Швидкий шлях Клінгера: до 15 значущих цифр і |порядок| <= 22 дають точний результат одним множенням/діленням.
+    // Все інше (і все незвичне, як NaN чи hex) віддається Double.parseDouble.
+    static double parseDouble(ByteBuffer buf, int from, int to, long fileOffset) {
+        while (from < to && isSpace(buf.get(from))) from++;
+        while (to > from && isSpace(buf.get(to - 1))) to--;
+        if (from < to && buf.get(from) == '"' && buf.get(to - 1) == '"') {
+            from++;
+            to--;
+        }
+        if (from >= to) throw new NumberFormatException("Empty numeric field at byte " + (fileOffset + from));
+        int i = from;
+        boolean negative = false;
+        byte b = buf.get(i);
+        if (b == '-' || b == '+') {
+            negative = b == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0, scale = 0;
+        boolean dot = false, any = false;
+        for (; i < to; i++) {
+            b = buf.get(i);
+            if (b >= '0' && b <= '9') {
+                any = true;
+                if (mantissa == 0 && b == '0') {
+                    if (dot) scale--;
+                    continue;
+                }
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    digits++;
+                    if (dot) scale--;
+                } else if (!dot) {
+                    scale++;
+                }
+            } else if (b == '.' && !dot) {
+                dot = true;
+            } else {
+                break;
+            }
+        }
+        if (i < to && (buf.get(i) == 'e' || buf.get(i) == 'E') && any) {
+            int j = i + 1;
+            boolean expNegative = false;
+            if (j < to && (buf.get(j) == '-' || buf.get(j) == '+')) expNegative = buf.get(j++) == '-';
+            int exp = 0;
+            int expStart = j;
+            for (; j < to && buf.get(j) >= '0' && buf.get(j) <= '9'; j++) exp = Math.min(10_000, exp * 10 + (buf.get(j) - '0'));
+            if (j > expStart) {
+                scale += expNegative ? -exp : exp;
+                i = j;
+            }
+        }
+        if (!any || i != to || digits > 15 || Math.abs(scale) > 22) return slowParse(buf, from, to, fileOffset);
+        double value = scale >= 0 ? mantissa * POW10[scale] : mantissa / POW10[-scale];
+        return negative ? -value : value;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static double slowParse(ByteBuffer buf, int from, int to, long fileOffset) {
+        byte[] bytes = new byte[to - from];
+        for (int i = 0; i < bytes.length; i++) bytes[i] = buf.get(from + i);
+        String text = new String(bytes, StandardCharsets.US_ASCII);
+        try {
+            return Double.parseDouble(text);
+        } catch (NumberFormatException e) {
+            throw new NumberFormatException("Bad number '" + text + "' at byte " + (fileOffset + from));
+        }
+    }
+
+    // Dataset зберігає матрицю одним double[], тож рядки × стовпці мусять уміститися в масив
+    private static void checkShape(long rows, int dims, Path source) throws IOException {
+        if (rows < 0 || dims < 1 || rows * dims > MAX_VALUES) {
+            throw new IOException(source + ": " + rows + "x" + dims + " values do not fit in one dataset (max " + MAX_VALUES + ")");
+        }
+    }
+
+    // Формат кешу: заголовок (magic, версія, рядки, стовпці, розмір і час зміни CSV, хеш вибраних стовпців),
+    // далі кожен стовпець окремо як rows double у little-endian
+    public void writeCache(Dataset dataset, Path cache, Path source) throws IOException {
+        int n = dataset.size(), dims = dataset.getDimensions();
+        Path tmp = cache.resolveSibling(cache.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(CACHE_MAGIC).putInt(CACHE_VERSION).putInt(n).putInt(dims);
+            header.putLong(Files.size(source)).putLong(Files.getLastModifiedTime(source).toMillis());
+            header.putInt(Arrays.hashCode(columns));
+            header.force();
+            double[] data = dataset.getData();
+            for (int j = 0; j < dims; j++) {
+                for (int from = 0; from < n; from += MAP_WINDOW_VALUES) {
+                    int count = Math.min(MAP_WINDOW_VALUES, n - from);
+                    MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, valueOffset(j, n, from), 8L * count);
+                    DoubleBuffer values = window.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+                    for (int p = from; p < from + count; p++) values.put(data[p * dims + j]);
+                    window.force();
+                }
+            }
+        }
+        Files.move(tmp, cache, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public Dataset readCacheIfFresh(Path cache, Path source) throws IOException {
+        if (!Files.exists(cache)) return null;
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) return null;
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != CACHE_MAGIC || buf.getInt() != CACHE_VERSION) return null;
+            int n = buf.getInt(), dims = buf.getInt();
+            long sourceSize = buf.getLong(), sourceModified = buf.getLong();
+            int columnsHash = buf.getInt();
+            if (dims != columns.length || columnsHash != Arrays.hashCode(columns)) return null;
+            if (sourceSize != Files.size(source) || sourceModified != Files.getLastModifiedTime(source).toMillis()) return null;
+            if (n < 0 || (long) n * dims > MAX_VALUES || channel.size() < HEADER_BYTES + 8L * n * dims) return null;
+            return readColumns(channel, n, dims);
+        }
+    }
+
+    // Кеш без перевірки джерела (наприклад, коли CSV вже немає)
+    public static Dataset readCache(Path cache) throws IOException {
+        try (FileChannel channel = FileChannel.open(cache, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) throw new IOException("Not a dataset cache: " + cache);
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            if (buf.getInt() != CACHE_MAGIC || buf.getInt() != CACHE_VERSION) throw new IOException("Not a dataset cache: " + cache);
+            int n = buf.getInt(), dims = buf.getInt();
+            checkShape(n, dims, cache);
+            if (channel.size() < HEADER_BYTES + 8L * n * dims) throw new IOException("Truncated dataset cache: " + cache);
+            return readColumns(channel, n, dims);
+        }
+    }
+
+    private static long valueOffset(int column, int n, int row) {
+        return HEADER_BYTES + 8L * ((long) column * n + row);
+    }
+
+    private static Dataset readColumns(FileChannel channel, int n, int dims) throws IOException {
+        Dataset dataset = new Dataset(n, dims);
+        double[] data = dataset.getData();
+        double[] column = new double[Math.min(n, MAP_WINDOW_VALUES)];
+        for (int j = 0; j < dims; j++) {
+            for (int from = 0; from < n; from += MAP_WINDOW_VALUES) {
+                int count = Math.min(MAP_WINDOW_VALUES, n - from);
+                channel.map(FileChannel.MapMode.READ_ONLY, valueOffset(j, n, from), 8L * count)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(column, 0, count);
+                for (int p = 0; p < count; p++) data[(from + p) * dims + j] = column[p];
+            }
+        }
+        return dataset;
+    }
+}
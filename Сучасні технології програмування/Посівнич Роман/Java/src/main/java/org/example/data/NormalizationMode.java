@@ -0,0 +1,8 @@
+package org.example.data;
+
+// MIN_MAX: (x - min) / (max - min); Z_SCORE: (x - mean) / std; ROBUST: (x - median) / IQR
+public enum NormalizationMode {
+    MIN_MAX,
+    Z_SCORE,
+    ROBUST
+}
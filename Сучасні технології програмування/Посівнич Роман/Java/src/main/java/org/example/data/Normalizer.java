@@ -0,0 +1,144 @@
+package org.example.data;
+
+import org.example.model.Dataset;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+// Навчені параметри нормалізації: x' = (x - offset) / scale для кожного стовпця.
+// Стала колонка (scale = 0) не ділиться на нуль, а стає нулем.
+public class Normalizer {
+    private static final int MAGIC = 0x4E4F524D; // "NORM"
+    private static final int DEFAULT_RESERVOIR = 10_000;
+    // Межа формату: пошкоджений заголовок не може замовити багатогігабайтні масиви при load
+    public static final int MAX_DIMENSIONS = 1 << 16;
+
+    private final NormalizationMode mode;
+    private final double[] offset;
+    private final double[] scale;
+
+    public Normalizer(NormalizationMode mode, double[] offset, double[] scale) {
+        if (offset.length != scale.length) throw new IllegalArgumentException("Offset and scale lengths differ");
+        this.mode = mode;
+        this.offset = offset;
+        this.scale = scale;
+        for (int j = 0; j < scale.length; j++) {
+            if (!(scale[j] > 0) || Double.isInfinite(scale[j])) scale[j] = 1.0;
+        }
+    }
+
+    public static Normalizer fit(NormalizationMode mode, ColumnStatistics stats) {
+        int dims = stats.getDimensions();
+        double[] offset = new double[dims], scale = new double[dims];
+        for (int j = 0; j < dims; j++) {
+            switch (mode) {
+                case Z_SCORE:
+                    offset[j] = stats.getMean(j);
+                    scale[j] = stats.getStandardDeviation(j);
+                    break;
+                case ROBUST:
+                    offset[j] = stats.quantile(j, 0.5);
+                    scale[j] = stats.quantile(j, 0.75) - stats.quantile(j, 0.25);
+                    break;
+                default:
+                    offset[j] = stats.getMin(j);
+                    scale[j] = stats.getMax(j) - stats.getMin(j);
+            }
+        }
+        return new Normalizer(mode, offset, scale);
+    }
+
+    public static Normalizer fit(NormalizationMode mode, Dataset dataset) {
+        return fit(mode, ColumnStatistics.of(dataset, reservoirFor(mode), 42L));
+    }
+
+    public static Normalizer fit(NormalizationMode mode, Iterator<double[]> rows, int dims) {
+        return fit(mode, ColumnStatistics.of(rows, dims, reservoirFor(mode), 42L));
+    }
+
+    private static int reservoirFor(NormalizationMode mode) {
+        return mode == NormalizationMode.ROBUST ? DEFAULT_RESERVOIR : 0;
+    }
+
+    public NormalizationMode getMode() { return mode; }
+    public int getDimensions() { return offset.length; }
+    public double getOffset(int col) { return offset[col]; }
+    public double getScale(int col) { return scale[col]; }
+
+    public void transform(double[] row, int from) {
+        for (int j = 0; j < offset.length; j++) row[from + j] = (row[from + j] - offset[j]) / scale[j];
+    }
+
+    public void inverseTransform(double[] row, int from) {
+        for (int j = 0; j < offset.length; j++) row[from + j] = row[from + j] * scale[j] + offset[j];
+    }
+
+    public void transformInPlace(Dataset dataset) {
+        checkDimensions(dataset.getDimensions());
+        double[] data = dataset.getData();
+        int dims = offset.length;
+        for (int p = 0; p < dataset.size(); p++) transform(data, p * dims);
+    }
+
+    // Рядки копіюються одразу в плоский масив і нормалізуються там, без проміжних double[]
+    public Dataset transform(List<double[]> rows) {
+        int dims = offset.length;
+        Dataset dataset = new Dataset(rows.size(), dims);
+        double[] data = dataset.getData();
+        for (int p = 0; p < rows.size(); p++) {
+            double[] row = rows.get(p);
+            checkDimensions(row.length);
+            System.arraycopy(row, 0, data, p * dims, dims);
+            transform(data, p * dims);
+        }
+        return dataset;
+    }
+
+    private void checkDimensions(int dims) {
+        if (dims != offset.length) throw new IllegalArgumentException("Expected " + offset.length + " features, got " + dims);
+    }
+
+    public void save(DataOutputStream out) throws IOException {
+        if (offset.length > MAX_DIMENSIONS) throw new IOException("Too many features to save: " + offset.length + " (max " + MAX_DIMENSIONS + ")");
+        out.writeInt(MAGIC);
+        out.writeUTF(mode.name());
+        out.writeInt(offset.length);
+        for (int j = 0; j < offset.length; j++) {
+            out.writeDouble(offset[j]);
+            out.writeDouble(scale[j]);
+        }
+    }
+
+    public static Normalizer load(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("Not a normalizer stream");
+        String name = in.readUTF();
+        NormalizationMode mode;
+        try {
+            mode = NormalizationMode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown normalization mode " + name);
+        }
+        int dims = in.readInt();
+        if (dims < 1 || dims > MAX_DIMENSIONS) throw new IOException("Invalid normalizer dimensions " + dims);
+        double[] offset = new double[dims], scale = new double[dims];
+        for (int j = 0; j < dims; j++) {
+            offset[j] = in.readDouble();
+            scale[j] = in.readDouble();
+        }
+        return new Normalizer(mode, offset, scale);
+    }
+
+    public void save(Path path) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            save(out);
+        }
+    }
+
+    public static Normalizer load(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return load(in);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+// Кульове дерево: вузол — центр і радіус, що охоплює всі його точки. Відсікання за
+// |q - c| - r не залежить від кількості осей, тож для високих розмірностей воно працює краще за KD-дерево.
+public class BallTree implements SpatialIndex {
+    private final double[] data;
+    private final int size;
+    private final int dims;
+    private final int[] perm;
+    private final int[] start;
+    private final int[] end;
+    private final int[] left;
+    private final int[] right;
+    private final double[] centers;
+    private final double[] radii;
+    private int nodeCount;
+
+    public BallTree(double[] data, int size, int dims) {
+        this.data = data;
+        this.size = size;
+        this.dims = dims;
+        this.perm = new int[size];
+        for (int i = 0; i < size; i++) perm[i] = i;
+        // Поділ по медіані: листки мають від LEAF_SIZE/2 точок, тож вузлів не більше 4N/LEAF_SIZE + 1
+        int capacity = Math.max(1, 4 * size / KDTree.LEAF_SIZE + 1);
+        start = new int[capacity];
+        end = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        centers = new double[capacity * dims];
+        radii = new double[capacity];
+        if (size > 0) build(0, size);
+    }
+
+    private int build(int from, int to) {
+        int node = nodeCount++;
+        start[node] = from;
+        end[node] = to;
+        left[node] = right[node] = -1;
+        int off = node * dims;
+        double[] min = new double[dims], max = new double[dims];
+        Arrays.fill(min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int i = from; i < to; i++) {
+            int p = perm[i] * dims;
+            for (int j = 0; j < dims; j++) {
+                double x = data[p + j];
+                centers[off + j] += x;
+                if (x < min[j]) min[j] = x;
+                if (x > max[j]) max[j] = x;
+            }
+        }
+        for (int j = 0; j < dims; j++) centers[off + j] /= (to - from);
+        double r2 = 0;
+        for (int i = from; i < to; i++) r2 = Math.max(r2, Neighbors.squaredDistance(data, perm[i] * dims, centers, off, dims));
+        radii[node] = Math.sqrt(r2);
+        if (to - from <= KDTree.LEAF_SIZE || r2 == 0) return node;
+
+        int splitDim = 0;
+        for (int j = 1; j < dims; j++) if (max[j] - min[j] > max[splitDim] - min[splitDim]) splitDim = j;
+        int mid = (from + to) >>> 1;
+        KDTree.select(perm, from, to, mid, data, dims, splitDim);
+        int l = build(from, mid);
+        int r = build(mid, to);
+        left[node] = l;
+        right[node] = r;
+        return node;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public int getDimensions() { return dims; }
+
+    // Нижня межа квадрата відстані від запиту до будь-якої точки кулі
+    private double ballDistance(double[] query, int node) {
+        double d = Math.sqrt(Neighbors.squaredDistance(query, 0, centers, node * dims, dims)) - radii[node];
+        return d > 0 ? d * d : 0;
+    }
+
+    @Override
+    public int nearest(double[] query) {
+        if (size == 0) return -1;
+        Neighbors best = new Neighbors(1);
+        search(0, query, best);
+        return best.sorted()[0];
+    }
+
+    @Override
+    public int[] kNearest(double[] query, int k) {
+        if (size == 0 || k <= 0) return new int[0];
+        Neighbors best = new Neighbors(Math.min(k, size));
+        search(0, query, best);
+        return best.sorted();
+    }
+
+    private void search(int node, double[] query, Neighbors best) {
+        if (left[node] < 0) {
+            for (int i = start[node]; i < end[node]; i++) {
+                int p = perm[i];
+                best.offer(p, Neighbors.squaredDistance(query, 0, data, p * dims, dims));
+            }
+            return;
+        }
+        double dl = ballDistance(query, left[node]);
+        double dr = ballDistance(query, right[node]);
+        int near = dl <= dr ? left[node] : right[node];
+        int far = dl <= dr ? right[node] : left[node];
+        if (Math.min(dl, dr) < best.bound()) search(near, query, best);
+        if (Math.max(dl, dr) < best.bound()) search(far, query, best);
+    }
+
+    @Override
+    public int[] withinRadius(double[] query, double radius) {
+        Neighbors.Collector found = new Neighbors.Collector();
+        if (size > 0) collect(0, query, radius * radius, found);
+        return found.sorted();
+    }
+
+    private void collect(int node, double[] query, double r2, Neighbors.Collector found) {
+        if (ballDistance(query, node) > r2) return;
+        if (left[node] < 0) {
+            for (int i = start[node]; i < end[node]; i++) {
+                int p = perm[i];
+                double d = Neighbors.squaredDistance(query, 0, data, p * dims, dims);
+                if (d <= r2) found.add(p, d);
+            }
+            return;
+        }
+        collect(left[node], query, r2, found);
+        collect(right[node], query, r2, found);
+    }
+}
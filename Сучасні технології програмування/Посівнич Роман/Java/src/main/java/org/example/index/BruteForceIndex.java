@@ -0,0 +1,52 @@
+package org.example.index;
+
+// Лінійний перебір — для кількох десятків рядків (наприклад, центроїдів) він найшвидший
+public class BruteForceIndex implements SpatialIndex {
+    private final double[] data;
+    private final int size;
+    private final int dims;
+
+    public BruteForceIndex(double[] data, int size, int dims) {
+        this.data = data;
+        this.size = size;
+        this.dims = dims;
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public int getDimensions() { return dims; }
+
+    @Override
+    public int nearest(double[] query) {
+        int best = -1;
+        double bestDist = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < size; i++) {
+            double d = Neighbors.squaredDistance(query, 0, data, i * dims, dims);
+            if (d < bestDist) {
+                bestDist = d;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public int[] kNearest(double[] query, int k) {
+        Neighbors heap = new Neighbors(Math.min(k, size));
+        for (int i = 0; i < size; i++) heap.offer(i, Neighbors.squaredDistance(query, 0, data, i * dims, dims));
+        return heap.sorted();
+    }
+
+    @Override
+    public int[] withinRadius(double[] query, double radius) {
+        Neighbors.Collector found = new Neighbors.Collector();
+        double r2 = radius * radius;
+        for (int i = 0; i < size; i++) {
+            double d = Neighbors.squaredDistance(query, 0, data, i * dims, dims);
+            if (d <= r2) found.add(i, d);
+        }
+        return found.sorted();
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+// KD-дерево на масивах: вузол — діапазон [start, end) у перестановці індексів, поділ по медіані
+// найширшої осі обмежувального прямокутника. Для кожного вузла зберігаються прямокутник,
+// кількість точок, сума векторів і сума квадратів норм — цього достатньо для алгоритму фільтрації k-means.
+public class KDTree implements SpatialIndex {
+    static final int LEAF_SIZE = 16;
+
+    private final double[] data;
+    private final int size;
+    private final int dims;
+    private final int[] perm;
+
+    private int nodeCount;
+    private int[] start;
+    private int[] end;
+    private int[] left;
+    private int[] right;
+    private double[] boxMin;
+    private double[] boxMax;
+    private double[] sums;
+    private double[] squaredNorms;
+
+    public KDTree(double[] data, int size, int dims) {
+        this.data = data;
+        this.size = size;
+        this.dims = dims;
+        this.perm = new int[size];
+        for (int i = 0; i < size; i++) perm[i] = i;
+        int capacity = Math.max(1, 4 * size / LEAF_SIZE + 1);
+        start = new int[capacity];
+        end = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+        boxMin = new double[capacity * dims];
+        boxMax = new double[capacity * dims];
+        sums = new double[capacity * dims];
+        squaredNorms = new double[capacity];
+        if (size > 0) build(0, size);
+    }
+
+    private int build(int from, int to) {
+        int node = newNode(from, to);
+        int off = node * dims;
+        Arrays.fill(boxMin, off, off + dims, Double.POSITIVE_INFINITY);
+        Arrays.fill(boxMax, off, off + dims, Double.NEGATIVE_INFINITY);
+        double norm = 0;
+        for (int i = from; i < to; i++) {
+            int p = perm[i] * dims;
+            for (int j = 0; j < dims; j++) {
+                double x = data[p + j];
+                if (x < boxMin[off + j]) boxMin[off + j] = x;
+                if (x > boxMax[off + j]) boxMax[off + j] = x;
+                sums[off + j] += x;
+                norm += x * x;
+            }
+        }
+        squaredNorms[node] = norm;
+        left[node] = right[node] = -1;
+        if (to - from <= LEAF_SIZE) return node;
+
+        int splitDim = 0;
+        double widest = -1;
+        for (int j = 0; j < dims; j++) {
+            double w = boxMax[off + j] - boxMin[off + j];
+            if (w > widest) {
+                widest = w;
+                splitDim = j;
+            }
+        }
+        if (widest <= 0) return node; // усі точки однакові
+        int mid = (from + to) >>> 1;
+        select(perm, from, to, mid, data, dims, splitDim);
+        int l = build(from, mid);
+        int r = build(mid, to);
+        left[node] = l;
+        right[node] = r;
+        return node;
+    }
+
+    private int newNode(int from, int to) {
+        if (nodeCount == start.length) {
+            int capacity = nodeCount * 2;
+            start = Arrays.copyOf(start, capacity);
+            end = Arrays.copyOf(end, capacity);
+            left = Arrays.copyOf(left, capacity);
+            right = Arrays.copyOf(right, capacity);
+            boxMin = Arrays.copyOf(boxMin, capacity * dims);
+            boxMax = Arrays.copyOf(boxMax, capacity * dims);
+            sums = Arrays.copyOf(sums, capacity * dims);
+            squaredNorms = Arrays.copyOf(squaredNorms, capacity);
+        }
+        start[nodeCount] = from;
+        end[nodeCount] = to;
+        return nodeCount++;
+    }
+
+    // Quickselect: після виклику perm[kth] стоїть на своєму місці за координатою dim,
+    // ліворуч — не більші, праворуч — не менші
+    static void select(int[] perm, int from, int to, int kth, double[] data, int dims, int dim) {
+        int lo = from, hi = to - 1;
+        while (lo < hi) {
+            double pivot = data[perm[(lo + hi) >>> 1] * dims + dim];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (data[perm[i] * dims + dim] < pivot) i++;
+                while (data[perm[j] * dims + dim] > pivot) j--;
+                if (i <= j) {
+                    int t = perm[i];
+                    perm[i++] = perm[j];
+                    perm[j--] = t;
+                }
+            }
+            if (kth <= j) hi = j;
+            else if (kth >= i) lo = i;
+            else break;
+        }
+    }
+
+    @Override
+    public int size() { return size; }
+
+    @Override
+    public int getDimensions() { return dims; }
+
+    public double[] getData() { return data; }
+
+    // Доступ до вузлів для алгоритмів, що обходять дерево самі (корінь — вузол 0)
+    public int getNodeCount() { return nodeCount; }
+    public boolean isLeaf(int node) { return left[node] < 0; }
+    public int getLeft(int node) { return left[node]; }
+    public int getRight(int node) { return right[node]; }
+    public int getStart(int node) { return start[node]; }
+    public int getEnd(int node) { return end[node]; }
+    public int getCount(int node) { return end[node] - start[node]; }
+    public int getPoint(int position) { return perm[position]; }
+    public double getBoxMin(int node, int dim) { return boxMin[node * dims + dim]; }
+    public double getBoxMax(int node, int dim) { return boxMax[node * dims + dim]; }
+    public double getSum(int node, int dim) { return sums[node * dims + dim]; }
+    public double getSquaredNorm(int node) { return squaredNorms[node]; }
+
+    // Квадрат відстані від запиту до прямокутника вузла (0, якщо всередині)
+    private double boxDistance(double[] query, int node) {
+        int off = node * dims;
+        double sum = 0;
+        for (int j = 0; j < dims; j++) {
+            double q = query[j];
+            double d = q < boxMin[off + j] ? boxMin[off + j] - q : q > boxMax[off + j] ? q - boxMax[off + j] : 0;
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    @Override
+    public int nearest(double[] query) {
+        if (size == 0) return -1;
+        Neighbors best = new Neighbors(1);
+        search(0, query, best);
+        return best.sorted()[0];
+    }
+
+    @Override
+    public int[] kNearest(double[] query, int k) {
+        if (size == 0 || k <= 0) return new int[0];
+        Neighbors best = new Neighbors(Math.min(k, size));
+        search(0, query, best);
+        return best.sorted();
+    }
+
+    // Спершу ближча дитина, дальня — лише якщо її прямокутник ближчий за поточну межу
+    private void search(int node, double[] query, Neighbors best) {
+        if (isLeaf(node)) {
+            for (int i = start[node]; i < end[node]; i++) {
+                int p = perm[i];
+                best.offer(p, Neighbors.squaredDistance(query, 0, data, p * dims, dims));
+            }
+            return;
+        }
+        double dl = boxDistance(query, left[node]);
+        double dr = boxDistance(query, right[node]);
+        int near = dl <= dr ? left[node] : right[node];
+        int far = dl <= dr ? right[node] : left[node];
+        if (Math.min(dl, dr) < best.bound()) search(near, query, best);
+        if (Math.max(dl, dr) < best.bound()) search(far, query, best);
+    }
+
+    @Override
+    public int[] withinRadius(double[] query, double radius) {
+        Neighbors.Collector found = new Neighbors.Collector();
+        if (size > 0) collect(0, query, radius * radius, found);
+        return found.sorted();
+    }
+
+    private void collect(int node, double[] query, double r2, Neighbors.Collector found) {
+        if (boxDistance(query, node) > r2) return;
+        if (isLeaf(node)) {
+            for (int i = start[node]; i < end[node]; i++) {
+                int p = perm[i];
+                double d = Neighbors.squaredDistance(query, 0, data, p * dims, dims);
+                if (d <= r2) found.add(p, d);
+            }
+            return;
+        }
+        collect(left[node], query, r2, found);
+        collect(right[node], query, r2, found);
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.index;
+
+import java.util.Arrays;
+
+// Спільне для індексів: квадрат відстані та обмежена max-купа для k найближчих
+final class Neighbors {
+    private final int[] ids;
+    private final double[] dist;
+    private int count;
+
+    Neighbors(int capacity) {
+        ids = new int[capacity];
+        dist = new double[capacity];
+    }
+
+    static double squaredDistance(double[] a, int aOff, double[] b, int bOff, int dims) {
+        double sum = 0;
+        for (int j = 0; j < dims; j++) {
+            double d = a[aOff + j] - b[bOff + j];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    // Поточна межа відсікання: квадрат відстані до k-го найближчого
+    double bound() {
+        return count < ids.length ? Double.POSITIVE_INFINITY : dist[0];
+    }
+
+    void offer(int id, double d) {
+        if (count < ids.length) {
+            int i = count++;
+            ids[i] = id;
+            dist[i] = d;
+            while (i > 0) {
+                int parent = (i - 1) / 2;
+                if (dist[parent] >= dist[i]) break;
+                swap(i, parent);
+                i = parent;
+            }
+        } else if (d < dist[0]) {
+            ids[0] = id;
+            dist[0] = d;
+            int i = 0;
+            while (true) {
+                int l = 2 * i + 1, r = l + 1, largest = i;
+                if (l < count && dist[l] > dist[largest]) largest = l;
+                if (r < count && dist[r] > dist[largest]) largest = r;
+                if (largest == i) break;
+                swap(i, largest);
+                i = largest;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        int ti = ids[a]; ids[a] = ids[b]; ids[b] = ti;
+        double td = dist[a]; dist[a] = dist[b]; dist[b] = td;
+    }
+
+    int[] sorted() {
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(dist[a], dist[b]));
+        int[] result = new int[count];
+        for (int i = 0; i < count; i++) result[i] = ids[order[i]];
+        return result;
+    }
+
+    // Для радіусного пошуку: зростаючий список із сортуванням наприкінці
+    static final class Collector {
+        private int[] ids = new int[16];
+        private double[] dist = new double[16];
+        private int count;
+
+        void add(int id, double d) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                dist = Arrays.copyOf(dist, count * 2);
+            }
+            ids[count] = id;
+            dist[count++] = d;
+        }
+
+        int[] sorted() {
+            Integer[] order = new Integer[count];
+            for (int i = 0; i < count; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Double.compare(dist[a], dist[b]));
+            int[] result = new int[count];
+            for (int i = 0; i < count; i++) result[i] = ids[order[i]];
+            return result;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.index;
+
+import org.example.model.DataPoint;
+import org.example.model.Dataset;
+import java.util.List;
+
+// Індекс над плоскою row-major матрицею (точки або центроїди). Відстань — евклідова,
+// результати — індекси рядків, відсортовані за зростанням відстані.
+public interface SpatialIndex {
+    // До цього розміру перебір швидший за будь-яке дерево
+    int BRUTE_FORCE_LIMIT = 32;
+    // Вище цієї розмірності KD-дерево майже не відсікає гілки, краще кульове
+    int KD_TREE_MAX_DIMS = 12;
+
+    int size();
+
+    int getDimensions();
+
+    int nearest(double[] query);
+
+    int[] kNearest(double[] query, int k);
+
+    int[] withinRadius(double[] query, double radius);
+
+    static SpatialIndex of(double[] data, int size, int dims) {
+        if (size <= BRUTE_FORCE_LIMIT) return new BruteForceIndex(data, size, dims);
+        if (dims <= KD_TREE_MAX_DIMS) return new KDTree(data, size, dims);
+        return new BallTree(data, size, dims);
+    }
+
+    static SpatialIndex of(Dataset dataset) {
+        return of(dataset.getData(), dataset.size(), dataset.getDimensions());
+    }
+
+    static SpatialIndex of(List<DataPoint> points) {
+        return of(Dataset.fromPoints(points));
+    }
+}
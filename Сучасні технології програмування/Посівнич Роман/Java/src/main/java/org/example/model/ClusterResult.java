@@ -1,5 +1,7 @@
 package org.example.model;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ClusterResult {
@@ -11,6 +13,15 @@ public class ClusterResult {
         this.centroids = centroids;
     }
 
+    // Перетворення плоского результату у "види" DataPoint для UI
+    public static ClusterResult of(Dataset clustered, double[] centroidMatrix) {
+        int dims = clustered.getDimensions();
+        int k = dims == 0 ? 0 : centroidMatrix.length / dims;
+        List<DataPoint> centroids = new ArrayList<>(k);
+        for (int c = 0; c < k; c++) centroids.add(new DataPoint(Arrays.copyOfRange(centroidMatrix, c * dims, (c + 1) * dims)));
+        return new ClusterResult(clustered.toPoints(), centroids);
+    }
+
     public List<DataPoint> getClusteredPoints() { return clusteredPoints; }
     public List<DataPoint> getCentroids() { return centroids; }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package org.example.model;
+
+import java.util.Arrays;
+
+// Компактна копія матриці ознак (row-major, як у Dataset) для проходів, обмежених пропускною здатністю пам'яті.
+// FLOAT32 зберігає значення як float. QUANTIZED_16/8 — рівномірні коди стовпця: x ≈ min_j + code·step_j,
+// step_j = (max_j - min_j) / (2^bits - 1), тож похибка значення не більша за step_j / 2.
+// Рядок декодується в double один раз і порівнюється з усіма центроїдами векторизованим ядром: з пам'яті
+// читається 4/2/1 байт на значення замість 8, а центроїди й суми лишаються в double.
+public final class CompactMatrix {
+    private final StorageMode mode;
+    private final int size;
+    private final int dims;
+    private final float[] floats;
+    private final short[] shorts;
+    private final byte[] bytes;
+    private final double[] min;
+    private final double[] max;
+    private final double[] step;
+
+    private CompactMatrix(StorageMode mode, int size, int dims) {
+        this.mode = mode;
+        this.size = size;
+        this.dims = dims;
+        int values = size * dims;
+        this.floats = mode == StorageMode.FLOAT32 ? new float[values] : null;
+        this.shorts = mode == StorageMode.QUANTIZED_16 ? new short[values] : null;
+        this.bytes = mode == StorageMode.QUANTIZED_8 ? new byte[values] : null;
+        this.min = new double[dims];
+        this.max = new double[dims];
+        this.step = new double[dims];
+    }
+
+    public static CompactMatrix of(Dataset dataset, StorageMode mode) {
+        return of(dataset.getData(), dataset.size(), dataset.getDimensions(), mode);
+    }
+
+    public static CompactMatrix of(double[] data, int size, int dims, StorageMode mode) {
+        if (mode == StorageMode.DOUBLE) throw new IllegalArgumentException("DOUBLE storage is the dataset itself; no compact copy needed");
+        CompactMatrix m = new CompactMatrix(mode, size, dims);
+        if (mode == StorageMode.FLOAT32) {
+            for (int i = 0; i < size * dims; i++) m.floats[i] = (float) data[i];
+            return m;
+        }
+        int levels = mode == StorageMode.QUANTIZED_16 ? 0xFFFF : 0xFF;
+        double[] max = m.max;
+        Arrays.fill(m.min, Double.POSITIVE_INFINITY);
+        Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        for (int p = 0; p < size; p++) {
+            for (int j = 0; j < dims; j++) {
+                double x = data[p * dims + j];
+                m.min[j] = Math.min(m.min[j], x);
+                max[j] = Math.max(max[j], x);
+            }
+        }
+        for (int j = 0; j < dims; j++) {
+            if (size == 0) m.min[j] = max[j] = 0;
+            // Сталий стовпець: усі коди 0, декодуються точно в min
+            m.step[j] = max[j] > m.min[j] ? (max[j] - m.min[j]) / levels : 1.0;
+        }
+        for (int p = 0; p < size; p++) {
+            for (int j = 0; j < dims; j++) {
+                int i = p * dims + j;
+                int code = (int) Math.min(levels, Math.round((data[i] - m.min[j]) / m.step[j]));
+                if (m.shorts != null) m.shorts[i] = (short) code;
+                else m.bytes[i] = (byte) code;
+            }
+        }
+        return m;
+    }
+
+    public StorageMode getMode() { return mode; }
+    public int size() { return size; }
+    public int getDimensions() { return dims; }
+
+    public long bytes() { return (long) size * dims * mode.getBytesPerValue(); }
+
+    // Найбільша похибка значення стовпця після кодування (для FLOAT32 — половина ulp найбільшого за модулем)
+    public double maxError(int col) {
+        if (mode != StorageMode.FLOAT32) return (max[col] - min[col]) / (mode == StorageMode.QUANTIZED_16 ? 0xFFFF : 0xFF) / 2;
+        float largest = 0;
+        for (int p = 0; p < size; p++) largest = Math.max(largest, Math.abs(floats[p * dims + col]));
+        return Math.ulp(largest) / 2;
+    }
+
+    public double get(int row, int col) {
+        int i = row * dims + col;
+        switch (mode) {
+            case FLOAT32: return floats[i];
+            case QUANTIZED_16: return min[col] + (shorts[i] & 0xFFFF) * step[col];
+            default: return min[col] + (bytes[i] & 0xFF) * step[col];
+        }
+    }
+
+    public void decodeRow(int row, double[] out, int offset) {
+        int src = row * dims;
+        double[] min = this.min, step = this.step;
+        switch (mode) {
+            case FLOAT32: {
+                float[] values = floats;
+                for (int j = 0; j < dims; j++) out[offset + j] = values[src + j];
+                break;
+            }
+            case QUANTIZED_16: {
+                short[] codes = shorts;
+                for (int j = 0; j < dims; j++) out[offset + j] = min[j] + (codes[src + j] & 0xFFFF) * step[j];
+                break;
+            }
+            default: {
+                byte[] codes = bytes;
+                for (int j = 0; j < dims; j++) out[offset + j] = min[j] + (codes[src + j] & 0xFF) * step[j];
+            }
+        }
+    }
+
+    // Декодована копія (для порівняння точності з оригіналом)
+    public Dataset toDataset() {
+        Dataset dataset = new Dataset(size, dims);
+        for (int p = 0; p < size; p++) decodeRow(p, dataset.getData(), p * dims);
+        return dataset;
+    }
+}
@@ -17,10 +17,16 @@ public class DataPoint {
     public void setClusterId(int clusterId) { this.clusterId = clusterId; }
 
     public double distanceTo(DataPoint other) {
+        return Math.sqrt(squaredDistanceTo(other));
+    }
+
+    // Для порівнянь (argmin) корінь не потрібен
+    public double squaredDistanceTo(DataPoint other) {
         double sum = 0;
         for (int i = 0; i < features.length; i++) {
-            sum += Math.pow(features[i] - other.features[i], 2);
+            double d = features[i] - other.features[i];
+            sum += d * d;
         }
-        return Math.sqrt(sum);
+        return sum;
     }
 }
\ No newline at end of file
@@ -0,0 +1,127 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Плоска row-major матриця ознак + масив міток кластерів. DataPoint лишається лише як "вид" для UI.
+// Необов'язкові ваги рядків (наприклад, коресет): рядок з вагою w рахується як w однакових точок.
+public class Dataset {
+    private final double[] data;
+    private final int size;
+    private final int dimensions;
+    private final int[] labels;
+    private final double[] weights;
+
+    public Dataset(int size, int dimensions) {
+        this(new double[size * dimensions], size, dimensions);
+    }
+
+    public Dataset(double[] data, int size, int dimensions) {
+        this(data, size, dimensions, newLabels(size));
+    }
+
+    public Dataset(double[] data, int size, int dimensions, int[] labels) {
+        this(data, size, dimensions, labels, null);
+    }
+
+    // weights == null — усі рядки з вагою 1
+    public Dataset(double[] data, int size, int dimensions, int[] labels, double[] weights) {
+        if (size < 0 || dimensions < 0) throw new IllegalArgumentException("Negative dataset shape: " + size + "x" + dimensions);
+        if (data.length < size * dimensions) throw new IllegalArgumentException("Data array is too short for " + size + "x" + dimensions);
+        if (labels.length < size) throw new IllegalArgumentException("Labels array is too short for " + size + " rows");
+        if (weights != null) {
+            if (weights.length < size) throw new IllegalArgumentException("Weights array is too short for " + size + " rows");
+            for (int i = 0; i < size; i++) {
+                if (!(weights[i] > 0)) throw new IllegalArgumentException("Row " + i + " has non-positive weight " + weights[i]);
+            }
+        }
+        this.data = data;
+        this.size = size;
+        this.dimensions = dimensions;
+        this.labels = labels;
+        this.weights = weights;
+    }
+
+    public static Dataset fromPoints(List<DataPoint> points) {
+        if (points == null || points.isEmpty()) return new Dataset(0, 0);
+        int dims = points.get(0).getFeatures().length;
+        Dataset ds = new Dataset(points.size(), dims);
+        for (int i = 0; i < points.size(); i++) {
+            DataPoint p = points.get(i);
+            System.arraycopy(p.getFeatures(), 0, ds.data, i * dims, dims);
+            ds.labels[i] = p.getClusterId();
+        }
+        return ds;
+    }
+
+    public static Dataset fromRows(List<double[]> rows) {
+        if (rows == null || rows.isEmpty()) return new Dataset(0, 0);
+        int dims = rows.get(0).length;
+        Dataset ds = new Dataset(rows.size(), dims);
+        for (int i = 0; i < rows.size(); i++) System.arraycopy(rows.get(i), 0, ds.data, i * dims, dims);
+        return ds;
+    }
+
+    private static int[] newLabels(int size) {
+        int[] labels = new int[size];
+        Arrays.fill(labels, -1);
+        return labels;
+    }
+
+    public int size() { return size; }
+    public int getDimensions() { return dimensions; }
+    public double[] getData() { return data; }
+    public int[] getLabels() { return labels; }
+
+    public int offset(int row) { return row * dimensions; }
+    public double get(int row, int col) { return data[row * dimensions + col]; }
+    public void set(int row, int col, double value) { data[row * dimensions + col] = value; }
+    public int getLabel(int row) { return labels[row]; }
+    public void setLabel(int row, int label) { labels[row] = label; }
+
+    public boolean isWeighted() { return weights != null; }
+    // null для незваженого набору
+    public double[] getWeights() { return weights; }
+    public double getWeight(int row) { return weights == null ? 1.0 : weights[row]; }
+
+    public double totalWeight() {
+        if (weights == null) return size;
+        double total = 0;
+        for (int i = 0; i < size; i++) total += weights[i];
+        return total;
+    }
+
+    public double[] copyRow(int row) {
+        return Arrays.copyOfRange(data, row * dimensions, (row + 1) * dimensions);
+    }
+
+    // Ті самі ознаки, але власний масив міток (для паралельних прогонів над спільною матрицею)
+    public Dataset withLabels(int[] newLabels) {
+        return new Dataset(data, size, dimensions, newLabels, weights);
+    }
+
+    public Dataset withWeights(double[] newWeights) {
+        return new Dataset(data, size, dimensions, labels, newWeights);
+    }
+
+    public Dataset withFreshLabels() {
+        return withLabels(newLabels(size));
+    }
+
+    public DataPoint pointView(int row) {
+        DataPoint p = new DataPoint(copyRow(row));
+        p.setClusterId(labels[row]);
+        return p;
+    }
+
+    public List<DataPoint> toPoints() {
+        List<DataPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) points.add(pointView(i));
+        return points;
+    }
+
+    public void copyLabelsTo(List<DataPoint> points) {
+        for (int i = 0; i < size; i++) points.get(i).setClusterId(labels[i]);
+    }
+}
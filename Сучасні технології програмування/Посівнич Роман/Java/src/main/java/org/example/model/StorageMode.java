@@ -0,0 +1,15 @@
+package org.example.model;
+
+// Формат зберігання ознак для проходів призначення k-means. Центроїди й суми завжди рахуються в double.
+public enum StorageMode {
+    DOUBLE(8),          // сам Dataset, без компактної копії
+    FLOAT32(4),         // ~7 значущих цифр; для нормалізованих [0, 1] похибка ~6e-8
+    QUANTIZED_16(2),    // 65 536 рівнів на стовпець, похибка <= (max - min) / 131 070
+    QUANTIZED_8(1);     // 256 рівнів на стовпець, похибка <= (max - min) / 510
+
+    private final int bytesPerValue;
+
+    StorageMode(int bytesPerValue) { this.bytesPerValue = bytesPerValue; }
+
+    public int getBytesPerValue() { return bytesPerValue; }
+}
@@ -0,0 +1,58 @@
+package org.example.ui;
+
+import org.example.model.Dataset;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.AbstractTableModel;
+import java.text.DecimalFormat;
+import java.util.List;
+
+// Таблиця результатів без копії даних: клітинки читаються з плоских масивів і форматуються
+// лише тоді, коли JTable їх малює (тобто тільки видимі рядки).
+// Колонки: ознаки (Orig), ознаки (Norm), Cluster.
+public class ClusterTableModel extends AbstractTableModel {
+    private final List<String> featureNames;
+    private final Dataset raw;
+    private final Dataset normalized;
+    private final DecimalFormat rawFormat = new DecimalFormat("0.00");
+    private final DecimalFormat normFormat = new DecimalFormat("0.000");
+    private int[] labels;
+
+    public ClusterTableModel(List<String> featureNames, Dataset raw, Dataset normalized) {
+        if (raw.size() != normalized.size()) throw new IllegalArgumentException("Raw and normalized row counts differ");
+        this.featureNames = featureNames;
+        this.raw = raw;
+        this.normalized = normalized;
+    }
+
+    // Після перекластеризації змінюється лише колонка Cluster, тож і подія лише для неї
+    public void setLabels(int[] labels) {
+        if (labels != null && labels.length < raw.size()) throw new IllegalArgumentException("Labels array is too short");
+        this.labels = labels;
+        if (raw.size() > 0) fireTableChanged(new TableModelEvent(this, 0, raw.size() - 1, getClusterColumn()));
+    }
+
+    public int getClusterColumn() { return featureNames.size() * 2; }
+
+    @Override
+    public int getRowCount() { return raw.size(); }
+
+    @Override
+    public int getColumnCount() { return featureNames.size() * 2 + 1; }
+
+    @Override
+    public String getColumnName(int column) {
+        int f = featureNames.size();
+        if (column == getClusterColumn()) return "Cluster";
+        return column < f ? featureNames.get(column) + " (Orig)" : featureNames.get(column - f) + " (Norm)";
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) { return String.class; }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int f = featureNames.size();
+        if (column == getClusterColumn()) return labels == null ? "" : String.valueOf(labels[row]);
+        return column < f ? rawFormat.format(raw.get(row, column)) : normFormat.format(normalized.get(row, column - f));
+    }
+}
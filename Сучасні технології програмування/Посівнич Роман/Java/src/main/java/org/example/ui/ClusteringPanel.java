@@ -4,6 +4,9 @@ import org.example.model.ClusterResult;
 import org.example.model.DataPoint;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
 import java.util.List;
 
 public class ClusteringPanel extends JPanel {
@@ -14,6 +17,14 @@ public class ClusteringPanel extends JPanel {
     private int currentK;
     private int visFeatureXIndex = 0;
     private int visFeatureYIndex = 1;
+    private RenderMode renderMode = RenderMode.AUTO;
+    private int densityThreshold = 20_000;
+
+    // Кеш карт щільності: по зображенню на кластер, перебудовується лише при зміні даних або осей
+    private static final int BINS = 512;
+    private BufferedImage[] densityLayers;
+    private ClusterResult densityResult;
+    private int densityX = -1, densityY = -1;
 
     public static final Color[] CLUSTER_COLORS = {
             new Color(255, 99, 132), new Color(54, 162, 235), new Color(75, 192, 192),
@@ -34,6 +45,21 @@ public class ClusteringPanel extends JPanel {
         repaint();
     }
 
+    public void setRenderMode(RenderMode renderMode) {
+        this.renderMode = renderMode;
+        repaint();
+    }
+
+    public void setDensityThreshold(int densityThreshold) {
+        this.densityThreshold = densityThreshold;
+        repaint();
+    }
+
+    private boolean useDensity() {
+        if (renderMode == RenderMode.AUTO) return currentResult.getClusteredPoints().size() > densityThreshold;
+        return renderMode == RenderMode.DENSITY;
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
@@ -57,14 +83,21 @@ public class ClusteringPanel extends JPanel {
         g2d.drawString(featureNames.get(visFeatureYIndex) + " (Норм.)", -(plotYStart + plotHeight / 2 + 80), plotXStart - 25);
         g2d.rotate(Math.PI / 2);
 
-        for (DataPoint point : currentResult.getClusteredPoints()) {
-            double x = point.getFeatures()[visFeatureXIndex];
-            double y = point.getFeatures()[visFeatureYIndex];
-            int screenX = plotXStart + (int) (x * plotWidth);
-            int screenY = plotYStart + plotHeight - (int) (y * plotHeight);
-            int cid = point.getClusterId();
-            g2d.setColor((cid >= 0 && cid < CLUSTER_COLORS.length) ? CLUSTER_COLORS[cid] : Color.LIGHT_GRAY);
-            g2d.fillOval(screenX - DOT_SIZE / 2, screenY - DOT_SIZE / 2, DOT_SIZE, DOT_SIZE);
+        if (useDensity()) {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+            for (BufferedImage layer : densityLayers()) {
+                g2d.drawImage(layer, plotXStart, plotYStart, plotWidth, plotHeight, null);
+            }
+        } else {
+            for (DataPoint point : currentResult.getClusteredPoints()) {
+                double x = point.getFeatures()[visFeatureXIndex];
+                double y = point.getFeatures()[visFeatureYIndex];
+                int screenX = plotXStart + (int) (x * plotWidth);
+                int screenY = plotYStart + plotHeight - (int) (y * plotHeight);
+                int cid = point.getClusterId();
+                g2d.setColor((cid >= 0 && cid < CLUSTER_COLORS.length) ? CLUSTER_COLORS[cid] : Color.LIGHT_GRAY);
+                g2d.fillOval(screenX - DOT_SIZE / 2, screenY - DOT_SIZE / 2, DOT_SIZE, DOT_SIZE);
+            }
         }
 
         g2d.setColor(Color.BLACK);
@@ -77,4 +110,50 @@ public class ClusteringPanel extends JPanel {
             g2d.drawRect(screenX - DOT_SIZE, screenY - DOT_SIZE, DOT_SIZE * 2, DOT_SIZE * 2);
         }
     }
-}
\ No newline at end of file
+
+    private BufferedImage[] densityLayers() {
+        if (densityLayers == null || densityResult != currentResult || densityX != visFeatureXIndex || densityY != visFeatureYIndex) {
+            densityLayers = buildDensityLayers(currentResult.getClusteredPoints(), visFeatureXIndex, visFeatureYIndex);
+            densityResult = currentResult;
+            densityX = visFeatureXIndex;
+            densityY = visFeatureYIndex;
+        }
+        return densityLayers;
+    }
+
+    // Точки розкладаються по BINS x BINS клітинках окремо для кожного кластера. Прозорість клітинки — log(1 + n),
+    // нормована на найщільнішу клітинку, тож і поодинокі точки, і згустки лишаються видимими.
+    // Шари малюються один на одний, перекриття кластерів змішуються альфа-композицією.
+    private static BufferedImage[] buildDensityLayers(List<DataPoint> points, int xIndex, int yIndex) {
+        int layers = CLUSTER_COLORS.length + 1;
+        int[][] counts = new int[layers][];
+        int max = 0;
+        for (DataPoint point : points) {
+            double[] f = point.getFeatures();
+            int bx = Math.max(0, Math.min(BINS - 1, (int) (f[xIndex] * BINS)));
+            int by = Math.max(0, Math.min(BINS - 1, (int) ((1 - f[yIndex]) * BINS)));
+            int cid = point.getClusterId();
+            int layer = (cid >= 0 && cid < CLUSTER_COLORS.length) ? cid : CLUSTER_COLORS.length;
+            if (counts[layer] == null) counts[layer] = new int[BINS * BINS];
+            max = Math.max(max, ++counts[layer][by * BINS + bx]);
+        }
+        double logMax = Math.log1p(max);
+        BufferedImage[] images = new BufferedImage[layers];
+        int used = 0;
+        for (int layer = 0; layer < layers; layer++) {
+            if (counts[layer] == null) continue;
+            Color color = layer < CLUSTER_COLORS.length ? CLUSTER_COLORS[layer] : Color.LIGHT_GRAY;
+            int rgb = color.getRGB() & 0xFFFFFF;
+            BufferedImage image = new BufferedImage(BINS, BINS, BufferedImage.TYPE_INT_ARGB);
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            int[] c = counts[layer];
+            for (int i = 0; i < c.length; i++) {
+                if (c[i] == 0) continue;
+                int alpha = 60 + (int) (195 * Math.log1p(c[i]) / logMax);
+                pixels[i] = (alpha << 24) | rgb;
+            }
+            images[used++] = image;
+        }
+        return Arrays.copyOf(images, used);
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.ui;
+
+import org.example.algo.IterationStats;
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+// Збіжність вибраного K: інерція по ітераціях (лінія) і частка перепризначених точок (стовпці),
+// під графіком — підсумок часу фаз і порожніх кластерів
+public class ConvergencePanel extends JPanel {
+    private static final int PADDING = 40;
+    private List<IterationStats> history;
+    private int currentK;
+
+    public ConvergencePanel() {
+        setBackground(Color.WHITE);
+        setPreferredSize(new Dimension(420, 0));
+    }
+
+    public void updateHistory(List<IterationStats> history, int currentK) {
+        this.history = history;
+        this.currentK = currentK;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        if (history == null || history.isEmpty()) return;
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+        int w = getWidth(), h = getHeight();
+        int plotW = w - 2 * PADDING, plotH = h - 2 * PADDING - 80;
+        if (plotW <= 0 || plotH <= 0) return;
+
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(new Font("Arial", Font.BOLD, 14));
+        g2d.drawString("Збіжність (K=" + currentK + ")", PADDING, PADDING - 5);
+        g2d.drawRect(PADDING, PADDING, plotW, plotH);
+
+        int n = history.size();
+        double maxInertia = 0, minInertia = Double.MAX_VALUE;
+        long maxReassigned = 1, assignNanos = 0, updateNanos = 0;
+        int emptyEvents = 0, reseeded = 0;
+        for (IterationStats s : history) {
+            if (!Double.isNaN(s.inertia())) {
+                maxInertia = Math.max(maxInertia, s.inertia());
+                minInertia = Math.min(minInertia, s.inertia());
+            }
+            maxReassigned = Math.max(maxReassigned, s.reassigned());
+            assignNanos += s.assignNanos();
+            updateNanos += s.updateNanos();
+            emptyEvents += s.emptyClusters();
+            reseeded += s.reseededClusters();
+        }
+        double range = maxInertia - minInertia > 0 ? maxInertia - minInertia : 1;
+        double stepX = (double) plotW / n;
+
+        // Стовпці перепризначень (шкала — від максимуму за запуск)
+        g2d.setColor(new Color(255, 159, 64, 140));
+        for (int i = 0; i < n; i++) {
+            int barH = (int) ((double) history.get(i).reassigned() / maxReassigned * plotH);
+            int x = PADDING + (int) (i * stepX);
+            g2d.fillRect(x + 1, PADDING + plotH - barH, Math.max(1, (int) stepX - 2), barH);
+        }
+
+        // Лінія інерції (для HAMERLY її немає — NaN)
+        g2d.setColor(Color.BLUE.darker());
+        g2d.setStroke(new BasicStroke(2));
+        int prevX = -1, prevY = -1;
+        for (int i = 0; i < n; i++) {
+            double inertia = history.get(i).inertia();
+            if (Double.isNaN(inertia)) continue;
+            int x = PADDING + (int) ((i + 0.5) * stepX);
+            int y = PADDING + plotH - (int) ((inertia - minInertia) / range * (plotH - 10)) - 5;
+            if (prevX != -1) g2d.drawLine(prevX, prevY, x, y);
+            g2d.fillOval(x - 3, y - 3, 6, 6);
+            prevX = x;
+            prevY = y;
+        }
+        g2d.setStroke(new BasicStroke(1));
+
+        g2d.setColor(Color.BLACK);
+        g2d.setFont(new Font("Arial", Font.PLAIN, 12));
+        int labelEvery = Math.max(1, n / 10);
+        for (int i = 0; i < n; i += labelEvery) {
+            g2d.drawString(String.valueOf(i + 1), PADDING + (int) ((i + 0.5) * stepX) - 3, PADDING + plotH + 15);
+        }
+        int y = PADDING + plotH + 35;
+        g2d.setColor(Color.BLUE.darker());
+        g2d.drawString("— інерція", PADDING, y);
+        g2d.setColor(new Color(230, 130, 40));
+        g2d.drawString("▮ перепризначені точки (макс. " + maxReassigned + ")", PADDING + 90, y);
+        g2d.setColor(Color.BLACK);
+        g2d.drawString(String.format("Ітерацій: %d   призначення: %.1f мс   оновлення: %.1f мс", n, assignNanos / 1e6, updateNanos / 1e6),
+                PADDING, y + 20);
+        g2d.drawString(String.format("Порожніх кластерів: %d   перезасіяно: %d", emptyEvents, reseeded), PADDING, y + 38);
+    }
+}
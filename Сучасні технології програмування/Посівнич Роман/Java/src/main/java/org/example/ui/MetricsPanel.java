@@ -7,19 +7,24 @@ import java.util.Map;
 public class MetricsPanel extends JPanel {
     private Map<Integer, Double> silScores;
     private Map<Integer, Double> chScores;
+    private Map<Integer, Double> dbScores;
     private int currentK;
 
     public MetricsPanel() {
-        setLayout(new GridLayout(2, 1, 10, 10));
+        setLayout(new GridLayout(3, 1, 10, 10));
     }
 
-    public void updateMetrics(Map<Integer, Double> silScores, Map<Integer, Double> chScores, int currentK) {
+    public void updateMetrics(Map<Integer, Double> silScores, Map<Integer, Double> chScores,
+                              Map<Integer, Double> dbScores, int currentK) {
         this.silScores = silScores;
         this.chScores = chScores;
+        this.dbScores = dbScores;
         this.currentK = currentK;
         removeAll();
         add(new MetricGraphPanel("Оцінка Силуету", silScores, currentK, false));
         add(new MetricGraphPanel("Оцінка Калінскі-Харабаш", chScores, currentK, true));
+        // Девіс-Боулдін теж невід'ємний, але кращим є менше значення
+        add(new MetricGraphPanel("Індекс Девіса-Боулдіна", dbScores, currentK, true));
         revalidate();
         repaint();
     }
@@ -28,10 +33,10 @@ public class MetricsPanel extends JPanel {
         private final String title;
         private final Map<Integer, Double> scores;
         private final int currentK;
-        private final boolean isCH;
+        private final boolean zeroBased;
 
-        public MetricGraphPanel(String title, Map<Integer, Double> scores, int currentK, boolean isCH) {
-            this.title = title; this.scores = scores; this.currentK = currentK; this.isCH = isCH;
+        public MetricGraphPanel(String title, Map<Integer, Double> scores, int currentK, boolean zeroBased) {
+            this.title = title; this.scores = scores; this.currentK = currentK; this.zeroBased = zeroBased;
             setBackground(Color.WHITE);
         }
 
@@ -51,7 +56,7 @@ public class MetricsPanel extends JPanel {
             g2d.drawRect(PADDING, PADDING, plotW, plotH);
 
             double max = scores.values().stream().mapToDouble(d -> d).max().orElse(1);
-            double min = isCH ? 0 : scores.values().stream().mapToDouble(d -> d).min().orElse(-1);
+            double min = zeroBased ? 0 : scores.values().stream().mapToDouble(d -> d).min().orElse(-1);
             double range = (max - min == 0) ? 1 : max - min;
 
             int minK = scores.keySet().stream().min(Integer::compareTo).orElse(2);
@@ -0,0 +1,8 @@
+package org.example.ui;
+
+// AUTO: точки, поки їх не більше за поріг, далі — карта щільності
+public enum RenderMode {
+    AUTO,
+    POINTS,
+    DENSITY
+}